@@ -0,0 +1,168 @@
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Newest circulation activity (issues and returns) for the dashboard widget. Seeded once
+// from two LIMIT-ed indexed queries, then fed by IssueCreated/IssueReturned events into a
+// fixed-size ring, so rendering the widget never touches the database.
+public class ActivityFeed {
+    private static final int CAPACITY = Math.max(1, Integer.getInteger("library.activity.capacity", 50));
+
+    public enum Kind { ISSUED, RETURNED }
+
+    public static final class Entry {
+        private final long seq;
+        private final int issueId;
+        private final Kind kind;
+        private final String bookTitle;
+        private final String memberName;
+        private final LocalDate date;
+
+        private Entry(long seq, int issueId, Kind kind, String bookTitle, String memberName, LocalDate date) {
+            this.seq = seq;
+            this.issueId = issueId;
+            this.kind = kind;
+            this.bookTitle = bookTitle;
+            this.memberName = memberName;
+            this.date = date;
+        }
+
+        public int getIssueId() { return issueId; }
+        public Kind getKind() { return kind; }
+        public String getBookTitle() { return bookTitle; }
+        public String getMemberName() { return memberName; }
+        public LocalDate getDate() { return date; }
+    }
+
+    // Writers claim a sequence number and then fill slot seq % CAPACITY. A reader that finds
+    // a slot still holding an older (or no) entry skips it instead of waiting for the writer.
+    private static final AtomicReferenceArray<Entry> slots = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong head = new AtomicLong();
+    private static volatile boolean loaded = false;
+
+    static {
+        // Subscribed on first use, ahead of the dashboard's own listeners, so a refresh
+        // triggered by the same events already finds them in the ring
+        EventBus.subscribe(DomainEvent.IssueCreated.class, batch -> record(issueIds(batch), Kind.ISSUED));
+        EventBus.subscribe(DomainEvent.IssueReturned.class, batch -> record(issueIds(batch), Kind.RETURNED));
+        EventBus.subscribe(DomainEvent.Resync.class, batch -> {
+            try {
+                reload();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private static List<Integer> issueIds(List<? extends DomainEvent.LoanEvent> batch) {
+        List<Integer> ids = new ArrayList<>(batch.size());
+        for (DomainEvent.LoanEvent event : batch) {
+            ids.add(event.getIssueId());
+        }
+        return ids;
+    }
+
+    // Newest first, at most limit entries; loads the ring on first use only
+    public static List<Entry> latest(int limit) throws SQLException {
+        if (!loaded) {
+            ensureLoaded();
+        }
+        int n = Math.min(limit, CAPACITY);
+        List<Entry> result = new ArrayList<>(n);
+        long end = head.get();
+        for (long seq = end - 1; seq >= 0 && seq >= end - CAPACITY && result.size() < n; seq--) {
+            Entry entry = slots.get((int) (seq % CAPACITY));
+            if (entry != null && entry.seq == seq) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    public static void warmUpAsync() {
+        Thread t = new Thread(() -> {
+            try {
+                ensureLoaded();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }, "activity-feed-loader");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public static synchronized void ensureLoaded() throws SQLException {
+        if (loaded) {
+            return;
+        }
+        IssueDAO issueDAO = new IssueDAO();
+        List<Entry> seed = new ArrayList<>(CAPACITY * 2);
+        for (Issue issue : issueDAO.getIssuesPage(null, null, CAPACITY).getItems()) {
+            seed.add(toEntry(issue, Kind.ISSUED));
+        }
+        for (Issue issue : issueDAO.getRecentReturns(CAPACITY)) {
+            seed.add(toEntry(issue, Kind.RETURNED));
+        }
+        // Oldest first, so the newest CAPACITY entries are the ones left in the ring
+        seed.sort(Comparator.comparing(Entry::getDate).thenComparingInt(Entry::getIssueId));
+        for (Entry entry : seed) {
+            append(entry.issueId, entry.kind, entry.bookTitle, entry.memberName, entry.date);
+        }
+        loaded = true;
+    }
+
+    private static synchronized void reload() throws SQLException {
+        if (loaded) {
+            loaded = false;
+            for (int i = 0; i < CAPACITY; i++) {
+                slots.set(i, null);
+            }
+            ensureLoaded();
+        }
+    }
+
+    // Runs on the event dispatcher: one key lookup per event for the titles, never per render
+    private static void record(List<Integer> issueIds, Kind kind) {
+        try {
+            ensureLoaded();
+            IssueDAO issueDAO = new IssueDAO();
+            for (int issueId : issueIds) {
+                if (contains(issueId, kind)) {
+                    continue; // the seed query already saw this commit
+                }
+                Issue issue = issueDAO.getIssueById(issueId);
+                if (issue != null) {
+                    Entry entry = toEntry(issue, kind);
+                    append(entry.issueId, kind, entry.bookTitle, entry.memberName, entry.date);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static boolean contains(int issueId, Kind kind) {
+        long end = head.get();
+        for (long seq = end - 1; seq >= 0 && seq >= end - CAPACITY; seq--) {
+            Entry entry = slots.get((int) (seq % CAPACITY));
+            if (entry != null && entry.seq == seq && entry.issueId == issueId && entry.kind == kind) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void append(int issueId, Kind kind, String bookTitle, String memberName, LocalDate date) {
+        long seq = head.getAndIncrement();
+        slots.set((int) (seq % CAPACITY), new Entry(seq, issueId, kind, bookTitle, memberName, date));
+    }
+
+    private static Entry toEntry(Issue issue, Kind kind) {
+        LocalDate date = kind == Kind.RETURNED && issue.getReturnDate() != null ? issue.getReturnDate() : issue.getIssueDate();
+        return new Entry(-1, issue.getId(), kind, issue.getBookTitle(), issue.getMemberName(), date);
+    }
+}
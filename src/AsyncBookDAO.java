@@ -0,0 +1,34 @@
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncBookDAO {
+    private final BookDAO bookDAO;
+
+    public AsyncBookDAO() {
+        this(new BookDAO());
+    }
+
+    public AsyncBookDAO(BookDAO bookDAO) {
+        this.bookDAO = bookDAO;
+    }
+
+    public CompletableFuture<Void> addBook(Book b) {
+        return DaoExecutor.supply(() -> { bookDAO.addBook(b); return null; });
+    }
+
+    public CompletableFuture<Void> updateBook(Book b) {
+        return DaoExecutor.supply(() -> { bookDAO.updateBook(b); return null; });
+    }
+
+    public CompletableFuture<Void> deleteBook(int id) {
+        return DaoExecutor.supply(() -> { bookDAO.deleteBook(id); return null; });
+    }
+
+    public CompletableFuture<List<Book>> getAllBooks() {
+        return DaoExecutor.supply(bookDAO::getAllBooks);
+    }
+
+    public CompletableFuture<Book> getBookById(int id) {
+        return DaoExecutor.supply(() -> bookDAO.getBookById(id));
+    }
+}
@@ -0,0 +1,46 @@
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncIssueDAO {
+    private final IssueDAO issueDAO;
+    private final CirculationService circulation = new CirculationService();
+
+    public AsyncIssueDAO() {
+        this(new IssueDAO());
+    }
+
+    public AsyncIssueDAO(IssueDAO issueDAO) {
+        this.issueDAO = issueDAO;
+    }
+
+    // Loans are only written through CirculationService, which applies the availability and
+    // loan rules in the same transaction as the write
+    public CompletableFuture<CirculationResult> issueBook(Issue issue) {
+        return circulation.issueAsync(issue.getBookId(), issue.getMemberId(), issue.getIssueDate(),
+                issue.getDueDate(), false);
+    }
+
+    public CompletableFuture<CirculationResult> returnBook(int issueId, double fineAmount) {
+        return circulation.returnBookAsync(issueId, fineAmount);
+    }
+
+    public CompletableFuture<List<Issue>> getAllIssues() {
+        return DaoExecutor.supply(issueDAO::getAllIssues);
+    }
+
+    public CompletableFuture<List<Issue>> getCurrentIssues() {
+        return DaoExecutor.supply(issueDAO::getCurrentIssues);
+    }
+
+    public CompletableFuture<List<Issue>> getOverdueIssues() {
+        return DaoExecutor.supply(issueDAO::getOverdueIssues);
+    }
+
+    public CompletableFuture<Boolean> isBookAvailable(int bookId) {
+        return DaoExecutor.supply(() -> issueDAO.isBookAvailable(bookId));
+    }
+
+    public CompletableFuture<Issue> getIssueById(int issueId) {
+        return DaoExecutor.supply(() -> issueDAO.getIssueById(issueId));
+    }
+}
@@ -0,0 +1,38 @@
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncMemberDAO {
+    private final MemberDAO memberDAO;
+
+    public AsyncMemberDAO() {
+        this(new MemberDAO());
+    }
+
+    public AsyncMemberDAO(MemberDAO memberDAO) {
+        this.memberDAO = memberDAO;
+    }
+
+    public CompletableFuture<Void> addMember(Member member) {
+        return DaoExecutor.supply(() -> { memberDAO.addMember(member); return null; });
+    }
+
+    public CompletableFuture<Void> updateMember(Member member) {
+        return DaoExecutor.supply(() -> { memberDAO.updateMember(member); return null; });
+    }
+
+    public CompletableFuture<Void> deleteMember(int id) {
+        return DaoExecutor.supply(() -> { memberDAO.deleteMember(id); return null; });
+    }
+
+    public CompletableFuture<List<Member>> getAllMembers() {
+        return DaoExecutor.supply(memberDAO::getAllMembers);
+    }
+
+    public CompletableFuture<Member> getMemberById(int id) {
+        return DaoExecutor.supply(() -> memberDAO.getMemberById(id));
+    }
+
+    public CompletableFuture<List<Member>> getActiveMembers() {
+        return DaoExecutor.supply(memberDAO::getActiveMembers);
+    }
+}
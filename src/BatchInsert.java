@@ -0,0 +1,65 @@
+import java.sql.*;
+import java.util.List;
+
+// Chunked executeBatch inside the caller's transaction. A chunk that hits a constraint
+// violation is rolled back to its savepoint and replayed row by row, so only the bad
+// rows are reported and everything else is still inserted.
+public class BatchInsert {
+
+    public interface Binder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    public static final int DEFAULT_CHUNK_SIZE = Integer.getInteger("library.batch.chunkSize", 500);
+
+    public static <T> BatchResult run(Connection conn, String sql, List<T> rows, int chunkSize, Binder<T> binder) throws SQLException {
+        BatchResult result = new BatchResult(rows.size());
+        int chunk = Math.max(1, chunkSize);
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             Statement st = conn.createStatement()) {
+            for (int start = 0; start < rows.size(); start += chunk) {
+                int end = Math.min(rows.size(), start + chunk);
+                st.execute("SAVEPOINT batch_chunk");
+                try {
+                    for (int i = start; i < end; i++) {
+                        binder.bind(ps, rows.get(i));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    // AUTOINCREMENT hands out max(id)+1 per row and we hold the write lock,
+                    // so the chunk's keys are the contiguous range ending at last_insert_rowid()
+                    int last = lastInsertId(st);
+                    for (int i = start; i < end; i++) {
+                        result.setKey(i, last - (end - 1 - i));
+                    }
+                    st.execute("RELEASE batch_chunk");
+                } catch (SQLException e) {
+                    ps.clearBatch();
+                    st.execute("ROLLBACK TO batch_chunk");
+                    st.execute("RELEASE batch_chunk");
+                    insertOneByOne(ps, st, rows, start, end, binder, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static <T> void insertOneByOne(PreparedStatement ps, Statement st, List<T> rows, int start, int end,
+                                           Binder<T> binder, BatchResult result) throws SQLException {
+        for (int i = start; i < end; i++) {
+            try {
+                binder.bind(ps, rows.get(i));
+                ps.executeUpdate();
+                result.setKey(i, lastInsertId(st));
+            } catch (SQLException e) {
+                result.addFailure(i, e.getMessage());
+            }
+        }
+    }
+
+    private static int lastInsertId(Statement st) throws SQLException {
+        try (ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class BatchResult {
+    private final int[] generatedKeys;
+    private final Map<Integer, String> failures = new TreeMap<>();
+
+    public BatchResult(int size) {
+        this.generatedKeys = new int[size];
+    }
+
+    void setKey(int index, int key) {
+        generatedKeys[index] = key;
+    }
+
+    void addFailure(int index, String message) {
+        failures.put(index, message);
+    }
+
+    // Generated id per input row, 0 for rows that failed
+    public int[] getGeneratedKeys() { return generatedKeys; }
+
+    // Input row index -> database error for rows that were rejected
+    public Map<Integer, String> getFailures() { return Collections.unmodifiableMap(failures); }
+
+    public int getInsertedCount() { return generatedKeys.length - failures.size(); }
+    public boolean hasFailures() { return !failures.isEmpty(); }
+}
@@ -4,11 +4,13 @@ public class Book {
     private String author;
     private int year;
     private int quantity;
+    private int availableCopies; // quantity minus active loans, maintained by the database
 
     public Book() {}
 
     public Book(int id, String title, String author, int year, int quantity) {
         this.id = id; this.title = title; this.author = author; this.year = year; this.quantity = quantity;
+        this.availableCopies = quantity;
     }
     public Book(String title, String author, int year, int quantity) {
         this(0, title, author, year, quantity);
@@ -25,6 +27,9 @@ public class Book {
     public void setYear(int year) { this.year = year; }
     public int getQuantity() { return quantity; }
     public void setQuantity(int quantity) { this.quantity = quantity; }
+    public int getAvailableCopies() { return availableCopies; }
+    public void setAvailableCopies(int availableCopies) { this.availableCopies = availableCopies; }
+    public boolean isAvailable() { return availableCopies > 0; }
     
     @Override
     public String toString() {
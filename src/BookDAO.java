@@ -1,80 +1,331 @@
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class BookDAO {
 
+    // Statements shared with QueryPlanCheck, which explains exactly these strings
+    private static final String BOOK_SELECT = "SELECT id, title, author, year, quantity, available_copies FROM books";
+    static final String ALL_BOOKS_SQL = BOOK_SELECT + " ORDER BY id DESC";
+    static final String BOOK_BY_ID_SQL = BOOK_SELECT + " WHERE id=?";
+    static final String BOOKS_AT_SQL = BOOK_SELECT + " WHERE id < ? ORDER BY id DESC LIMIT ? OFFSET ?";
+    static final String BY_TITLE_AND_AUTHOR_SQL = BOOK_SELECT +
+        " WHERE title = ? COLLATE NOCASE AND author = ? COLLATE NOCASE LIMIT 1";
+    // bm25 weights: a title hit outranks an author hit, which outranks a year hit
+    static final String SEARCH_SQL =
+        "SELECT b.id, b.title, b.author, b.year, b.quantity, b.available_copies FROM books_fts " +
+        "JOIN books b ON b.id = books_fts.rowid " +
+        "WHERE books_fts MATCH ? ORDER BY bm25(books_fts, 10.0, 5.0, 1.0), b.id LIMIT ?";
+    static final String DRIFTED_AVAILABILITY_SQL =
+        "SELECT b.id FROM books b " +
+        "LEFT JOIN (SELECT book_id, COUNT(*) AS active FROM issues WHERE status = 'ISSUED' GROUP BY book_id) l " +
+        "ON l.book_id = b.id " +
+        "WHERE b.available_copies <> b.quantity - COALESCE(l.active, 0)";
+    static final String UPDATE_BOOK_SQL = "UPDATE books SET title=?, author=?, year=?, quantity=? WHERE id=?";
+    static final String DELETE_BOOK_SQL = "DELETE FROM books WHERE id=?";
+
     public void addBook(Book b) throws SQLException {
         String sql = "INSERT INTO books(title, author, year, quantity) VALUES (?, ?, ?, ?)";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        int id = Database.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, b.getTitle());
+                ps.setString(2, b.getAuthor());
+                ps.setInt(3, b.getYear());
+                ps.setInt(4, b.getQuantity());
+                ps.executeUpdate();
+            }
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
+        b.setId(id);
+        EventBus.publish(new DomainEvent.BookChanged(b.getId()));
+    }
+
+    // Inserts all books in one transaction; see BatchResult for keys and per-row failures
+    public BatchResult addBooks(List<Book> books) throws SQLException {
+        return addBooks(books, BatchInsert.DEFAULT_CHUNK_SIZE);
+    }
+
+    public BatchResult addBooks(List<Book> books, int chunkSize) throws SQLException {
+        String sql = "INSERT INTO books(title, author, year, quantity) VALUES (?, ?, ?, ?)";
+        BatchResult result = Database.write(conn -> BatchInsert.run(conn, sql, books, chunkSize, (ps, b) -> {
             ps.setString(1, b.getTitle());
             ps.setString(2, b.getAuthor());
             ps.setInt(3, b.getYear());
             ps.setInt(4, b.getQuantity());
-            ps.executeUpdate();
+        }));
+        int[] keys = result.getGeneratedKeys();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] > 0) {
+                books.get(i).setId(keys[i]);
+                EventBus.publish(new DomainEvent.BookChanged(keys[i]));
+            }
         }
+        return result;
     }
 
     public void updateBook(Book b) throws SQLException {
-        String sql = "UPDATE books SET title=?, author=?, year=?, quantity=? WHERE id=?";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, b.getTitle());
-            ps.setString(2, b.getAuthor());
-            ps.setInt(3, b.getYear());
-            ps.setInt(4, b.getQuantity());
-            ps.setInt(5, b.getId());
-            ps.executeUpdate();
-        }
+        String sql = UPDATE_BOOK_SQL;
+        Database.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, b.getTitle());
+                ps.setString(2, b.getAuthor());
+                ps.setInt(3, b.getYear());
+                ps.setInt(4, b.getQuantity());
+                ps.setInt(5, b.getId());
+                ps.executeUpdate();
+            }
+            return null;
+        });
+        EventBus.publish(new DomainEvent.BookChanged(b.getId()));
     }
 
     public void deleteBook(int id) throws SQLException {
-        String sql = "DELETE FROM books WHERE id=?";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            ps.executeUpdate();
-        }
+        String sql = DELETE_BOOK_SQL;
+        Database.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, id);
+                ps.executeUpdate();
+            }
+            return null;
+        });
+        EventBus.publish(new DomainEvent.BookChanged(id));
     }
 
     public List<Book> getAllBooks() throws SQLException {
         List<Book> list = new ArrayList<>();
-        String sql = "SELECT id, title, author, year, quantity FROM books ORDER BY id DESC";
+        String sql = ALL_BOOKS_SQL;
         try (Connection conn = Database.getConnection();
              Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(sql)) {
             while (rs.next()) {
-                Book b = new Book(
-                    rs.getInt("id"),
-                    rs.getString("title"),
-                    rs.getString("author"),
-                    rs.getInt("year"),
-                    rs.getInt("quantity")
-                );
-                list.add(b);
+                list.add(mapBook(rs));
+            }
+        }
+        return list;
+    }
+
+    // Keyset pagination: pass the id (and title when sorting by title) of the last row
+    // of the previous page, or null for the first page. Sorting by title is case-insensitive.
+    public Page<Book> getBooksPage(Integer afterId, String afterTitle, int pageSize,
+                                   boolean sortByTitle, boolean descending) throws SQLException {
+        boolean hasCursor = afterId != null && (!sortByTitle || afterTitle != null);
+        String sql = booksPageSql(sortByTitle, descending, hasCursor);
+
+        List<Book> rows = new ArrayList<>(pageSize + 1);
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (hasCursor && sortByTitle) {
+                ps.setString(i++, afterTitle);
+                ps.setString(i++, afterTitle);
+            }
+            if (hasCursor) {
+                ps.setInt(i++, afterId);
+            }
+            ps.setInt(i, pageSize + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapBook(rs));
+                }
+            }
+        }
+        return Page.of(rows, pageSize);
+    }
+
+    static String booksPageSql(boolean sortByTitle, boolean descending, boolean hasCursor) {
+        StringBuilder sql = new StringBuilder(BOOK_SELECT);
+        String cmp = descending ? "<" : ">";
+        String dir = descending ? " DESC" : "";
+        if (sortByTitle) {
+            if (hasCursor) {
+                sql.append(" WHERE title ").append(cmp).append("= ? COLLATE NOCASE")
+                   .append(" AND (title ").append(cmp).append(" ? COLLATE NOCASE OR id ").append(cmp).append(" ?)");
+            }
+            sql.append(" ORDER BY title COLLATE NOCASE").append(dir).append(", id").append(dir);
+        } else {
+            if (hasCursor) {
+                sql.append(" WHERE id ").append(cmp).append(" ?");
+            }
+            sql.append(" ORDER BY id").append(dir);
+        }
+        return sql.append(" LIMIT ?").toString();
+    }
+
+    // Newest-first slice for table jumps: seeks below the anchor id by key (null starts from the
+    // newest book) and then steps over skip rows, so OFFSET only covers the gap to the anchor
+    public List<Book> getBooksAt(Integer beforeId, int skip, int limit) throws SQLException {
+        List<Book> list = new ArrayList<>(limit);
+        String sql = BOOKS_AT_SQL;
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, beforeId != null ? beforeId : Long.MAX_VALUE);
+            ps.setInt(2, limit);
+            ps.setInt(3, skip);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapBook(rs));
+                }
             }
         }
         return list;
     }
 
+    public int countBooks() throws SQLException {
+        try (Connection conn = Database.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM books")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
     public Book getBookById(int id) throws SQLException {
-        String sql = "SELECT id, title, author, year, quantity FROM books WHERE id=?";
+        String sql = BOOK_BY_ID_SQL;
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return new Book(
-                        rs.getInt("id"),
-                        rs.getString("title"),
-                        rs.getString("author"),
-                        rs.getInt("year"),
-                        rs.getInt("quantity")
-                    );
+                    return mapBook(rs);
                 }
             }
         }
         return null;
     }
+
+    // Case-insensitive duplicate lookup used before adding a book
+    public Book findByTitleAndAuthor(String title, String author) throws SQLException {
+        String sql = BY_TITLE_AND_AUTHOR_SQL;
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, title);
+            ps.setString(2, author);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return mapBook(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Ranked full-text search over title, author and year; every word is matched as a prefix
+    public List<Book> search(String query, int limit) throws SQLException {
+        List<Book> list = new ArrayList<>();
+        String match = toMatchExpression(query);
+        if (match.isEmpty()) {
+            return list;
+        }
+        String sql = SEARCH_SQL;
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, match);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapBook(rs));
+                }
+            }
+        }
+        return list;
+    }
+
+    // "tolk hob" -> "tolk"* "hob"*, split like the unicode61 tokenizer so user input never reaches FTS syntax
+    static String toMatchExpression(String query) {
+        StringBuilder match = new StringBuilder();
+        if (query == null) {
+            return "";
+        }
+        for (String token : query.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append('"').append(token).append("\"*");
+            }
+        }
+        return match.toString();
+    }
+
+    // Recomputes available_copies wherever it no longer equals quantity minus active loans and
+    // returns the ids that were repaired. The scan runs on a pooled reader so the writer is only
+    // held for the (normally empty) repair.
+    public List<Integer> repairAvailableCopies() throws SQLException {
+        String sql = DRIFTED_AVAILABILITY_SQL;
+        List<Integer> drifted = new ArrayList<>();
+        try (Connection conn = Database.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                drifted.add(rs.getInt(1));
+            }
+        }
+        if (drifted.isEmpty()) {
+            return drifted;
+        }
+
+        // Recomputed inside the write so a loan committed since the scan is counted too
+        String repair = "UPDATE books SET available_copies = quantity - " +
+                        "(SELECT COUNT(*) FROM issues WHERE book_id = ? AND status = 'ISSUED') WHERE id = ?";
+        Database.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(repair)) {
+                for (int id : drifted) {
+                    ps.setInt(1, id);
+                    ps.setInt(2, id);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+        for (int id : drifted) {
+            EventBus.publish(new DomainEvent.BookChanged(id));
+        }
+        return drifted;
+    }
+
+    public int streamBooks(Consumer<Book> consumer) throws SQLException {
+        return streamBooks(false, consumer);
+    }
+
+    // Walks the catalog in id order over a forward-only cursor without building a list.
+    // With reuseRow one Book instance is refilled per row, so the consumer must copy what it keeps.
+    public int streamBooks(boolean reuseRow, Consumer<Book> consumer) throws SQLException {
+        String sql = "SELECT id, title, author, year, quantity, available_copies FROM books ORDER BY id";
+        Book row = reuseRow ? new Book() : null;
+        int count = 0;
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = ResultSetStream.prepare(conn, sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                consumer.accept(mapBook(rs, reuseRow ? row : new Book()));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Lazily mapped stream over the same cursor; must be closed by the caller
+    public Stream<Book> bookStream() throws SQLException {
+        String sql = "SELECT id, title, author, year, quantity, available_copies FROM books ORDER BY id";
+        return ResultSetStream.query(sql, rs -> mapBook(rs, new Book()));
+    }
+
+    private Book mapBook(ResultSet rs) throws SQLException {
+        return mapBook(rs, new Book());
+    }
+
+    private Book mapBook(ResultSet rs, Book b) throws SQLException {
+        b.setId(rs.getInt("id"));
+        b.setTitle(rs.getString("title"));
+        b.setAuthor(rs.getString("author"));
+        b.setYear(rs.getInt("year"));
+        b.setQuantity(rs.getInt("quantity"));
+        b.setAvailableCopies(rs.getInt("available_copies"));
+        return b;
+    }
 }
@@ -0,0 +1,38 @@
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+// The library's current date, cached until the next local midnight so overdue checks in
+// renderers and loops don't each ask the clock. The nightly overdue job is scheduled for
+// the same rollover (see MaintenanceScheduler).
+public class BusinessDate {
+    private static volatile LocalDate today;
+    private static volatile long nextRolloverMillis = Long.MIN_VALUE;
+
+    public static LocalDate today() {
+        if (System.currentTimeMillis() >= nextRolloverMillis) {
+            refresh();
+        }
+        return today;
+    }
+
+    public static long todayEpochDay() {
+        return today().toEpochDay();
+    }
+
+    public static long millisUntilRollover() {
+        today();
+        return Math.max(0, nextRolloverMillis - System.currentTimeMillis());
+    }
+
+    private static synchronized void refresh() {
+        long now = System.currentTimeMillis();
+        if (now < nextRolloverMillis) {
+            return; // another thread rolled over first
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate date = LocalDate.now(zone);
+        // today first: a reader that sees the new rollover time also sees the new date
+        today = date;
+        nextRolloverMillis = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
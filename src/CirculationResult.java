@@ -0,0 +1,52 @@
+// Outcome of a CirculationService operation. A refused operation carries the reason
+// and changes nothing; a successful one carries the loan as it now stands.
+public class CirculationResult {
+    public enum Outcome {
+        ISSUED,
+        RENEWED,
+        RETURNED,
+        BOOK_NOT_FOUND,
+        UNAVAILABLE,        // every copy is on loan
+        ALREADY_HELD,       // the member already has a copy of this book
+        LOAN_LIMIT,         // the member is at the maximum number of active loans
+        OUTSTANDING_FINES,  // refused only when the caller did not allow fines
+        OVERDUE,            // overdue loans must be returned, not renewed
+        NOT_ON_LOAN         // unknown issue id or already returned
+    }
+
+    private final Outcome outcome;
+    private final Issue issue;
+    private final double outstandingFines;
+
+    private CirculationResult(Outcome outcome, Issue issue, double outstandingFines) {
+        this.outcome = outcome;
+        this.issue = issue;
+        this.outstandingFines = outstandingFines;
+    }
+
+    static CirculationResult success(Outcome outcome, Issue issue) {
+        return new CirculationResult(outcome, issue, 0.0);
+    }
+
+    static CirculationResult refused(Outcome outcome) {
+        return new CirculationResult(outcome, null, 0.0);
+    }
+
+    static CirculationResult outstandingFines(double amount) {
+        return new CirculationResult(Outcome.OUTSTANDING_FINES, null, amount);
+    }
+
+    public boolean isSuccess() {
+        return outcome == Outcome.ISSUED || outcome == Outcome.RENEWED || outcome == Outcome.RETURNED;
+    }
+
+    // getters
+    public Outcome getOutcome() { return outcome; }
+    public Issue getIssue() { return issue; }
+    public double getOutstandingFines() { return outstandingFines; }
+
+    @Override
+    public String toString() {
+        return outcome + (issue != null ? " issue " + issue.getId() : "");
+    }
+}
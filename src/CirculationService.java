@@ -0,0 +1,240 @@
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Checkout, renewal and return as single transactions. Each operation reads the
+// availability and member rules and applies its change inside one writer task, which
+// runs under the writer's BEGIN IMMEDIATE, so two desks can never both pass the
+// check for the last copy. A write lock held by another process surfaces as
+// SQLITE_BUSY once busy_timeout runs out; those operations are resubmitted after a
+// backoff that is scheduled, not slept, so no caller thread is held while it waits.
+// The *Async methods never block; the plain ones wait for the outcome. Events are published
+// from the completion callbacks, which run on the db writer, so they use tryPublish.
+public class CirculationService {
+    public static final int MAX_ACTIVE_LOANS = 3;
+    public static final int LOAN_PERIOD_DAYS = 14;
+
+    private static final int BUSY_RETRIES = Integer.getInteger("library.circulation.busyRetries", 5);
+    private static final long BUSY_BACKOFF_MILLIS = Long.getLong("library.circulation.busyBackoffMs", 50);
+
+    // SQLite primary result codes; extended codes keep them in the low byte
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+
+    // Shared with QueryPlanCheck, which explains exactly these strings
+    static final String RENEW_SQL = "UPDATE issues SET due_date=? WHERE id=? AND status='ISSUED'";
+
+    private static final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "circulation-retry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final AtomicLong busyRetries = new AtomicLong();
+
+    private final IssueDAO issueDAO = new IssueDAO();
+
+    // Operations resubmitted after SQLITE_BUSY since start-up
+    public static long getBusyRetries() {
+        return busyRetries.get();
+    }
+
+    public CirculationResult issue(int bookId, int memberId, boolean allowOutstandingFines) throws SQLException {
+        LocalDate today = BusinessDate.today();
+        return issue(bookId, memberId, today, today.plusDays(LOAN_PERIOD_DAYS), allowOutstandingFines);
+    }
+
+    // Outstanding fines only refuse the checkout when allowOutstandingFines is false, so the
+    // desk can show the amount and call again once the librarian confirms
+    public CirculationResult issue(int bookId, int memberId, LocalDate issueDate, LocalDate dueDate,
+                                   boolean allowOutstandingFines) throws SQLException {
+        return Database.await(issueAsync(bookId, memberId, issueDate, dueDate, allowOutstandingFines));
+    }
+
+    public CompletableFuture<CirculationResult> issueAsync(int bookId, int memberId, LocalDate issueDate,
+                                                           LocalDate dueDate, boolean allowOutstandingFines) {
+        return submitWithRetry(conn -> {
+            int available = availableCopies(conn, bookId);
+            if (available < 0) {
+                return CirculationResult.refused(CirculationResult.Outcome.BOOK_NOT_FOUND);
+            }
+            if (available == 0) {
+                return CirculationResult.refused(CirculationResult.Outcome.UNAVAILABLE);
+            }
+
+            MemberLoanSummary loans = IssueDAO.readMemberLoanSummary(conn, memberId, bookId);
+            if (loans.holdsBook()) {
+                return CirculationResult.refused(CirculationResult.Outcome.ALREADY_HELD);
+            }
+            if (loans.getActiveLoans() >= MAX_ACTIVE_LOANS) {
+                return CirculationResult.refused(CirculationResult.Outcome.LOAN_LIMIT);
+            }
+            if (loans.hasOutstandingFines() && !allowOutstandingFines) {
+                return CirculationResult.outstandingFines(loans.getOutstandingFines());
+            }
+
+            String sql = "INSERT INTO issues(book_id, member_id, issue_date, due_date) VALUES (?, ?, ?, ?)";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, bookId);
+                ps.setInt(2, memberId);
+                ps.setLong(3, issueDate.toEpochDay());
+                ps.setLong(4, dueDate.toEpochDay());
+                ps.executeUpdate();
+            }
+            Issue issue = new Issue(bookId, memberId, dueDate);
+            issue.setIssueDate(issueDate);
+            issue.setId(lastInsertRowId(conn));
+            return CirculationResult.success(CirculationResult.Outcome.ISSUED, issue);
+        }).thenApply(result -> {
+            if (result.isSuccess()) {
+                Issue issue = result.getIssue();
+                EventBus.tryPublish(new DomainEvent.IssueCreated(issue.getId(), bookId, memberId));
+                EventBus.tryPublish(new DomainEvent.BookChanged(bookId)); // available_copies moved
+            }
+            return result;
+        });
+    }
+
+    public CirculationResult renew(int issueId) throws SQLException {
+        return renew(issueId, LOAN_PERIOD_DAYS);
+    }
+
+    // Extends an active loan that is not yet overdue by the given number of days
+    public CirculationResult renew(int issueId, int days) throws SQLException {
+        return Database.await(renewAsync(issueId, days));
+    }
+
+    public CompletableFuture<CirculationResult> renewAsync(int issueId, int days) {
+        return submitWithRetry(conn -> {
+            Issue issue = issueDAO.readIssue(conn, issueId);
+            if (issue == null || !"ISSUED".equals(issue.getStatus())) {
+                return CirculationResult.refused(CirculationResult.Outcome.NOT_ON_LOAN);
+            }
+            if (issue.getDueDate().isBefore(BusinessDate.today())) {
+                return CirculationResult.refused(CirculationResult.Outcome.OVERDUE);
+            }
+
+            LocalDate dueDate = issue.getDueDate().plusDays(days);
+            try (PreparedStatement ps = conn.prepareStatement(RENEW_SQL)) {
+                ps.setLong(1, dueDate.toEpochDay());
+                ps.setInt(2, issueId);
+                ps.executeUpdate();
+            }
+            issue.setDueDate(dueDate);
+            return CirculationResult.success(CirculationResult.Outcome.RENEWED, issue);
+        }).thenApply(result -> {
+            if (result.isSuccess()) {
+                Issue issue = result.getIssue();
+                EventBus.tryPublish(new DomainEvent.IssueRenewed(issueId, issue.getBookId(), issue.getMemberId()));
+            }
+            return result;
+        });
+    }
+
+    // Closes the loan with the fine FinePolicy charges today, priced inside the transaction
+    public CirculationResult returnBook(int issueId) throws SQLException {
+        return returnBook(issueId, null);
+    }
+
+    // Closes the loan with the given fine (null to price it with FinePolicy); a second
+    // return of the same loan is refused
+    public CirculationResult returnBook(int issueId, Double fine) throws SQLException {
+        return Database.await(returnBookAsync(issueId, fine));
+    }
+
+    public CompletableFuture<CirculationResult> returnBookAsync(int issueId, Double fine) {
+        return submitWithRetry(conn -> {
+            Issue issue = issueDAO.readIssue(conn, issueId);
+            if (issue == null || !"ISSUED".equals(issue.getStatus())) {
+                return CirculationResult.refused(CirculationResult.Outcome.NOT_ON_LOAN);
+            }
+            double fineAmount = fine != null ? fine : FinePolicy.current().fineFor(issue, BusinessDate.today());
+
+            LocalDate today = BusinessDate.today();
+            try (PreparedStatement ps = conn.prepareStatement(IssueDAO.RETURN_BOOK_SQL)) {
+                ps.setLong(1, today.toEpochDay());
+                ps.setDouble(2, fineAmount);
+                ps.setInt(3, issueId);
+                if (ps.executeUpdate() == 0) {
+                    return CirculationResult.refused(CirculationResult.Outcome.NOT_ON_LOAN);
+                }
+            }
+            issue.setReturnDate(today);
+            issue.setStatus("RETURNED");
+            issue.setFineAmount(fineAmount);
+            return CirculationResult.success(CirculationResult.Outcome.RETURNED, issue);
+        }).thenApply(result -> {
+            if (result.isSuccess()) {
+                Issue issue = result.getIssue();
+                EventBus.tryPublish(new DomainEvent.IssueReturned(issueId, issue.getBookId(), issue.getMemberId()));
+                EventBus.tryPublish(new DomainEvent.BookChanged(issue.getBookId()));
+            }
+            return result;
+        });
+    }
+
+    // Copies on the shelf, or -1 when the book does not exist
+    private int availableCopies(Connection conn, int bookId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(IssueDAO.AVAILABLE_COPIES_SQL)) {
+            ps.setInt(1, bookId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Math.max(0, rs.getInt("available_copies")) : -1;
+            }
+        }
+    }
+
+    private int lastInsertRowId(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // The whole group commit fails on SQLITE_BUSY and nothing from it was applied,
+    // so the operation can simply be queued again once the backoff has passed
+    private static <T> CompletableFuture<T> submitWithRetry(SqlWork<T> work) {
+        CompletableFuture<T> outcome = new CompletableFuture<>();
+        submit(work, 1, outcome);
+        return outcome;
+    }
+
+    private static <T> void submit(SqlWork<T> work, int attempt, CompletableFuture<T> outcome) {
+        Database.submitWrite(work).whenComplete((value, error) -> {
+            if (error == null) {
+                outcome.complete(value);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (attempt > BUSY_RETRIES || !(cause instanceof SQLException) || !isBusy((SQLException) cause)) {
+                outcome.completeExceptionally(cause);
+                return;
+            }
+            busyRetries.incrementAndGet();
+            long backoff = BUSY_BACKOFF_MILLIS << Math.min(attempt - 1, 5);
+            retryScheduler.schedule(() -> submit(work, attempt + 1, outcome),
+                    backoff + ThreadLocalRandom.current().nextLong(backoff + 1), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    static boolean isBusy(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                int code = ((SQLException) t).getErrorCode() & 0xff;
+                if (code == SQLITE_BUSY || code == SQLITE_LOCKED) {
+                    return true;
+                }
+            }
+            String message = t.getMessage();
+            if (message != null && (message.contains("SQLITE_BUSY") || message.contains("database is locked"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
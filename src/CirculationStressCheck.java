@@ -0,0 +1,305 @@
+import java.io.File;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Many desks issuing and returning the same few books at once. Threads race for the last
+// copies and for returning the same loans, then the check verifies that no book was lent
+// beyond its quantity, no loan was returned twice and the available_copies counters match
+// the loans. Meanwhile a second writer outside the write queue (another library process on
+// the same file) issues and returns too, holding its lock long enough that queued writes
+// fail with SQLITE_BUSY and go through the retry path; its returns rely on the update's
+// status guard alone. Creates its own library.db, so run it from an empty directory.
+// Usage: java -cp "classes;lib\sqlite-jdbc.jar" CirculationStressCheck [threads] [opsPerThread]
+public class CirculationStressCheck {
+    private static final int BOOKS = 8;
+    private static final int COPIES = 3;
+    private static final int MEMBERS = 64;
+    private static final String DB_URL = "jdbc:sqlite:library.db";
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        if (new File("library.db").exists()) {
+            System.err.println("library.db already exists here; run the check from an empty directory");
+            System.exit(2);
+        }
+        // Queued writes give up waiting quickly, so the outside writer's lock surfaces as
+        // SQLITE_BUSY and the service has to retry instead of busy_timeout absorbing it
+        if (System.getProperty("library.db.busyTimeoutMs") == null) {
+            System.setProperty("library.db.busyTimeoutMs", "20");
+        }
+        if (System.getProperty("library.circulation.busyRetries") == null) {
+            System.setProperty("library.circulation.busyRetries", "20");
+        }
+
+        List<Integer> bookIds = new ArrayList<>();
+        BookDAO bookDAO = new BookDAO();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book("Stress Book " + i, "Author " + i, 2000 + i, COPIES);
+            bookDAO.addBook(book);
+            bookIds.add(book.getId());
+        }
+        List<Integer> memberIds = new ArrayList<>();
+        MemberDAO memberDAO = new MemberDAO();
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member("Member " + i, "member" + i + "@stress.test", "555-" + i, "Street " + i, "STUDENT");
+            memberDAO.addMember(member);
+            memberIds.add(member.getId());
+        }
+
+        CirculationService circulation = new CirculationService();
+        // Loans open as far as the desks know; returners pick from here without removing,
+        // so several threads regularly try to return the same loan
+        List<Integer> openLoans = new ArrayList<>();
+        Set<Integer> returned = ConcurrentHashMap.newKeySet();
+        AtomicInteger issued = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        AtomicInteger doubleReturns = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int op = 0; op < opsPerThread; op++) {
+                        Integer loan = null;
+                        synchronized (openLoans) {
+                            if (!openLoans.isEmpty() && random.nextBoolean()) {
+                                loan = openLoans.get(random.nextInt(openLoans.size()));
+                            }
+                        }
+                        if (loan != null) {
+                            CirculationResult result = circulation.returnBook(loan, 0.0);
+                            if (result.isSuccess()) {
+                                if (!returned.add(loan)) {
+                                    doubleReturns.incrementAndGet();
+                                }
+                                synchronized (openLoans) {
+                                    openLoans.remove(loan);
+                                }
+                            }
+                            continue;
+                        }
+                        int bookId = bookIds.get(random.nextInt(bookIds.size()));
+                        int memberId = memberIds.get(random.nextInt(memberIds.size()));
+                        CirculationResult result = circulation.issue(bookId, memberId, true);
+                        if (result.isSuccess()) {
+                            issued.incrementAndGet();
+                            synchronized (openLoans) {
+                                openLoans.add(result.getIssue().getId());
+                            }
+                        } else {
+                            refused.incrementAndGet();
+                        }
+                    }
+                } catch (SQLException | RuntimeException e) {
+                    errors.incrementAndGet();
+                    e.printStackTrace();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "desk-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+
+        AtomicBoolean desksDone = new AtomicBoolean(false);
+        AtomicInteger outsideIssued = new AtomicInteger();
+        AtomicInteger outsideReturned = new AtomicInteger();
+        Thread outside = new Thread(() -> {
+            try {
+                start.await();
+                runOutsideWriter(bookIds, memberIds, openLoans, returned, desksDone,
+                        outsideIssued, outsideReturned, doubleReturns);
+            } catch (SQLException | RuntimeException e) {
+                errors.incrementAndGet();
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "outside-writer");
+        outside.start();
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        desksDone.set(true);
+        outside.join();
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        System.out.println(threads + " desks, " + threads * opsPerThread + " operations in " + millis + "ms: "
+                + issued.get() + " issued, " + refused.get() + " refused, " + returned.size() + " returned");
+        System.out.println("Outside writer: " + outsideIssued.get() + " issued, " + outsideReturned.get()
+                + " returned; " + CirculationService.getBusyRetries() + " queued operations retried after SQLITE_BUSY");
+
+        List<String> problems = verify(openLoans, returned);
+        if (doubleReturns.get() > 0) {
+            problems.add(doubleReturns.get() + " loan(s) reported returned twice");
+        }
+        if (CirculationService.getBusyRetries() == 0) {
+            problems.add("no queued write hit SQLITE_BUSY, so the retry path was not exercised");
+        }
+        if (errors.get() > 0) {
+            problems.add(errors.get() + " desk(s) failed with an error");
+        }
+        if (problems.isEmpty()) {
+            System.out.println("✓ No oversold copies, no double returns, counters consistent");
+        } else {
+            for (String problem : problems) {
+                System.out.println("✗ " + problem);
+            }
+            System.exit(1);
+        }
+    }
+
+    // Applies the service's rules on its own connection under its own BEGIN IMMEDIATE, and
+    // holds the lock for a while in each transaction. Returns pick open loans without reading
+    // their status first, so a loan a desk just returned is kept from a second return only by
+    // the status guard in RETURN_BOOK_SQL.
+    private static void runOutsideWriter(List<Integer> bookIds, List<Integer> memberIds, List<Integer> openLoans,
+                                         Set<Integer> returned, AtomicBoolean desksDone, AtomicInteger issued,
+                                         AtomicInteger returnedCount, AtomicInteger doubleReturns)
+            throws SQLException, InterruptedException {
+        Random random = new Random(-1);
+        try (Connection conn = DriverManager.getConnection(DB_URL);
+             Statement st = conn.createStatement()) {
+            st.execute("PRAGMA busy_timeout = 5000");
+            while (!desksDone.get()) {
+                Integer loan = null;
+                synchronized (openLoans) {
+                    if (!openLoans.isEmpty() && random.nextBoolean()) {
+                        loan = openLoans.get(random.nextInt(openLoans.size()));
+                    }
+                }
+                int newLoan = 0;
+                boolean closed = false;
+                st.execute("BEGIN IMMEDIATE");
+                try {
+                    if (loan != null) {
+                        try (PreparedStatement ps = conn.prepareStatement(IssueDAO.RETURN_BOOK_SQL)) {
+                            ps.setLong(1, BusinessDate.todayEpochDay());
+                            ps.setDouble(2, 0.0);
+                            ps.setInt(3, loan);
+                            closed = ps.executeUpdate() == 1;
+                        }
+                    } else {
+                        newLoan = issueOutside(conn, bookIds.get(random.nextInt(bookIds.size())),
+                                memberIds.get(random.nextInt(memberIds.size())));
+                    }
+                    Thread.sleep(25 + random.nextInt(15)); // keep the write lock past the queue's busy_timeout
+                    st.execute("COMMIT");
+                } catch (SQLException | InterruptedException e) {
+                    st.execute("ROLLBACK");
+                    throw e;
+                }
+                if (closed) {
+                    returnedCount.incrementAndGet();
+                    if (!returned.add(loan)) {
+                        doubleReturns.incrementAndGet();
+                    }
+                    synchronized (openLoans) {
+                        openLoans.remove(loan);
+                    }
+                } else if (newLoan > 0) {
+                    issued.incrementAndGet();
+                    synchronized (openLoans) {
+                        openLoans.add(newLoan);
+                    }
+                }
+                Thread.sleep(20 + random.nextInt(40));
+            }
+        }
+    }
+
+    // CirculationService's checkout rules inside the caller's transaction; 0 when refused
+    private static int issueOutside(Connection conn, int bookId, int memberId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(IssueDAO.AVAILABLE_COPIES_SQL)) {
+            ps.setInt(1, bookId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) <= 0) {
+                    return 0;
+                }
+            }
+        }
+        MemberLoanSummary loans = IssueDAO.readMemberLoanSummary(conn, memberId, bookId);
+        if (loans.holdsBook() || loans.getActiveLoans() >= CirculationService.MAX_ACTIVE_LOANS) {
+            return 0;
+        }
+        LocalDate today = BusinessDate.today();
+        String sql = "INSERT INTO issues(book_id, member_id, issue_date, due_date) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, bookId);
+            ps.setInt(2, memberId);
+            ps.setLong(3, today.toEpochDay());
+            ps.setLong(4, today.plusDays(CirculationService.LOAN_PERIOD_DAYS).toEpochDay());
+            ps.executeUpdate();
+        }
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static List<String> verify(List<Integer> openLoans, Set<Integer> returned) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        try (Connection conn = Database.getConnection()) {
+            String sql = "SELECT b.id, b.quantity, b.available_copies, " +
+                "(SELECT COUNT(*) FROM issues i WHERE i.book_id = b.id AND i.status = 'ISSUED') AS active FROM books b";
+            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+                while (rs.next()) {
+                    int quantity = rs.getInt("quantity");
+                    int available = rs.getInt("available_copies");
+                    int active = rs.getInt("active");
+                    if (active > quantity) {
+                        problems.add("book " + rs.getInt("id") + " has " + active + " loans for " + quantity + " copies");
+                    }
+                    if (available < 0 || available != quantity - active) {
+                        problems.add("book " + rs.getInt("id") + " shows " + available + " available with "
+                            + active + " of " + quantity + " on loan");
+                    }
+                }
+            }
+
+            Map<String, Integer> byStatus = new HashMap<>();
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT status, COUNT(*) FROM issues GROUP BY status")) {
+                while (rs.next()) {
+                    byStatus.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+            if (byStatus.getOrDefault("RETURNED", 0) != returned.size()) {
+                problems.add(byStatus.getOrDefault("RETURNED", 0) + " loans returned in the database, "
+                    + returned.size() + " returns reported");
+            }
+            if (byStatus.getOrDefault("ISSUED", 0) != openLoans.size()) {
+                problems.add(byStatus.getOrDefault("ISSUED", 0) + " loans open in the database, "
+                    + openLoans.size() + " expected");
+            }
+
+            String overLimit = "SELECT member_id, COUNT(*) FROM issues WHERE status = 'ISSUED' GROUP BY member_id HAVING COUNT(*) > ?";
+            try (PreparedStatement ps = conn.prepareStatement(overLimit)) {
+                ps.setInt(1, CirculationService.MAX_ACTIVE_LOANS);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        problems.add("member " + rs.getInt(1) + " holds " + rs.getInt(2) + " loans");
+                    }
+                }
+            }
+        }
+        return problems;
+    }
+}
@@ -0,0 +1,310 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConnectionPool {
+    private final String url;
+    private final PoolConfig config;
+    private final Initializer initializer;
+
+    // Idle connections, most recently used first so warm page caches get reused
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    // Runs once on every new physical connection before it is handed out
+    public interface Initializer {
+        void init(Connection conn) throws SQLException;
+    }
+
+    public ConnectionPool(String url, PoolConfig config) {
+        this(url, config, conn -> {});
+    }
+
+    public ConnectionPool(String url, PoolConfig config, Initializer initializer) {
+        this.url = url;
+        this.config = config;
+        this.initializer = initializer;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getHousekeepingIntervalMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLException("Timed out after " + config.getBorrowTimeoutMillis()
+                        + "ms waiting for a database connection (" + getStats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        PooledConnection pc;
+        try {
+            pc = takeIdleOrCreate();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        borrowCount.increment();
+
+        pc.borrowedAt = System.currentTimeMillis();
+        pc.borrowerThread = Thread.currentThread();
+        pc.borrowTrace = config.getLeakThresholdMillis() > 0 ? new Throwable("Connection borrowed here") : null;
+        pc.leakReported = false;
+        borrowed.add(pc);
+        return pc.newHandle();
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - pc.lastUsedAt < config.getValidationIntervalMillis() || isValid(pc)) {
+                return pc;
+            }
+            discard(pc);
+        }
+        Connection raw = DriverManager.getConnection(url);
+        try {
+            initializer.init(raw);
+        } catch (SQLException | RuntimeException e) {
+            raw.close();
+            throw e;
+        }
+        createdCount.increment();
+        return new PooledConnection(raw);
+    }
+
+    private boolean isValid(PooledConnection pc) {
+        try {
+            return !pc.raw.isClosed() && pc.raw.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        borrowed.remove(pc);
+        pc.openStatements.clear();
+        pc.borrowerThread = null;
+        pc.borrowTrace = null;
+        boolean reusable = !closed;
+        try {
+            // Hand back a clean connection even if the borrower left a transaction open
+            if (reusable && !pc.raw.getAutoCommit()) {
+                pc.raw.rollback();
+                pc.raw.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            pc.lastUsedAt = System.currentTimeMillis();
+            idle.offerFirst(pc);
+        } else {
+            discard(pc);
+        }
+        permits.release();
+    }
+
+    private void discard(PooledConnection pc) {
+        evictedCount.increment();
+        try {
+            pc.raw.close();
+        } catch (SQLException e) {
+            // already broken, nothing more to do
+        }
+    }
+
+    private void housekeep() {
+        try {
+            // Idle eviction: oldest connections sit at the tail of the deque
+            long now = System.currentTimeMillis();
+            while (idle.size() > config.getMinIdle()) {
+                PooledConnection oldest = idle.peekLast();
+                if (oldest == null || now - oldest.lastUsedAt < config.getIdleTimeoutMillis()) {
+                    break;
+                }
+                if (idle.removeLastOccurrence(oldest)) {
+                    discard(oldest);
+                }
+            }
+
+            // Leak detection: report connections held longer than the threshold
+            long threshold = config.getLeakThresholdMillis();
+            if (threshold > 0) {
+                for (PooledConnection pc : borrowed) {
+                    if (!pc.leakReported && now - pc.borrowedAt > threshold) {
+                        pc.leakReported = true;
+                        leakCount.increment();
+                        Thread owner = pc.borrowerThread;
+                        System.err.println("Warning: database connection held for " + (now - pc.borrowedAt)
+                                + "ms by thread " + (owner != null ? owner.getName() : "?") + ", possible leak");
+                        if (pc.borrowTrace != null) {
+                            pc.borrowTrace.printStackTrace();
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Aborts whatever statements the given thread is running on a borrowed connection
+    public int cancelStatements(Thread borrower) {
+        int cancelled = 0;
+        for (PooledConnection pc : borrowed) {
+            if (pc.borrowerThread != borrower) {
+                continue;
+            }
+            for (Statement st : pc.openStatements) {
+                try {
+                    st.cancel();
+                    cancelled++;
+                } catch (SQLException e) {
+                    // statement already finished or closed
+                }
+            }
+        }
+        return cancelled;
+    }
+
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        double avgWait = borrows == 0 ? 0.0 : totalWaitNanos.sum() / (double) borrows / 1_000_000.0;
+        return new PoolStats(
+            borrowed.size(),
+            idle.size(),
+            config.getMaxSize(),
+            borrows,
+            timeoutCount.sum(),
+            createdCount.sum(),
+            evictedCount.sum(),
+            leakCount.sum(),
+            avgWait,
+            maxWaitNanos.get() / 1_000_000.0
+        );
+    }
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        for (Iterator<PooledConnection> it = idle.iterator(); it.hasNext(); ) {
+            PooledConnection pc = it.next();
+            it.remove();
+            discard(pc);
+        }
+    }
+
+    // One physical connection owned by the pool
+    private class PooledConnection {
+        final Connection raw;
+        volatile long lastUsedAt = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile Thread borrowerThread;
+        volatile Throwable borrowTrace;
+        volatile boolean leakReported;
+        // Statements created through the current handle, so they can be cancelled from another thread
+        final Set<Statement> openStatements = ConcurrentHashMap.newKeySet();
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Handle(this)
+            );
+        }
+    }
+
+    // Borrower-facing view: close() returns the connection instead of closing it
+    private class Handle implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean released = false;
+
+        Handle(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pc.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pc.raw + "]";
+                default:
+                    if (released) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(pc.raw, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Statement) {
+                        pc.openStatements.add((Statement) result);
+                    }
+                    return result;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Shared executor behind the Async*DAO facades. Concurrency is capped at the
+// connection pool size so async callers queue here instead of inside the pool.
+public class DaoExecutor {
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+        Database.getPoolStats().getMaxSize(),
+        r -> {
+            Thread t = new Thread(r, "dao-async-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    );
+
+    // Cancelling this future also cancels the JDBC statement its worker is executing
+    private static class QueryFuture<T> extends CompletableFuture<T> {
+        private Thread runner;
+
+        synchronized boolean start() {
+            if (isDone()) {
+                return false;
+            }
+            runner = Thread.currentThread();
+            return true;
+        }
+
+        synchronized void finish() {
+            runner = null;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            synchronized (this) {
+                if (cancelled && runner != null) {
+                    Database.cancelRunningStatements(runner);
+                    if (mayInterruptIfRunning) {
+                        runner.interrupt();
+                    }
+                }
+            }
+            return cancelled;
+        }
+    }
+
+    public static <T> CompletableFuture<T> supply(SqlCall<T> call) {
+        QueryFuture<T> future = new QueryFuture<>();
+        executor.execute(() -> {
+            if (!future.start()) {
+                return; // cancelled before it got a thread
+            }
+            try {
+                future.complete(call.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                future.finish();
+                Thread.interrupted(); // don't leak a cancellation interrupt into the next task
+            }
+        });
+        return future;
+    }
+}
@@ -1,6 +1,7 @@
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableModel;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -9,12 +10,15 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class Dashboard extends JFrame {
-    // Fine calculation configuration
-    // Business Logic: fine = days_overdue × FINE_PER_DAY
-    // Automatic overdue detection based on due_date vs current_date
-    private final double FINE_PER_DAY = 10.0; // Rs 10 per day overdue
+    // Search-as-you-type shows the best matches first and stops here
+    private static final int SEARCH_LIMIT = 200;
     
     // Modern color scheme
     private final Color PRIMARY_COLOR = new Color(52, 152, 219);
@@ -39,14 +43,14 @@ public class Dashboard extends JFrame {
     // Dashboard tab components
     private JTextField tfBookId, tfTitle, tfAuthor, tfYear, tfQuantity;
     private JTable booksTable;
-    private DefaultTableModel booksTableModel;
+    private PagedTableModel<Book> booksTableModel;
     private BookDAO bookDAO = new BookDAO();
     
     // Member Management components  
     private JTextField tfMemberId, tfMemberName, tfEmail, tfPhone, tfAddress;
     private JComboBox<String> cbMemberType, cbMemberStatus;
     private JTable membersTable;
-    private DefaultTableModel membersTableModel;
+    private PagedTableModel<Member> membersTableModel;
     private MemberDAO memberDAO = new MemberDAO();
     
     // Issue Management components
@@ -55,7 +59,25 @@ public class Dashboard extends JFrame {
     private JSpinner dueDateSpinner;
     private JTable issuesTable;
     private DefaultTableModel issuesTableModel;
+    private PagedTableModel<Issue> currentIssuesTableModel;
+    private PagedTableModel<Issue> overdueTableModel;
     private IssueDAO issueDAO = new IssueDAO();
+    private CirculationService circulation = new CirculationService();
+    private FineDAO fineDAO = new FineDAO();
+    private StatsDAO statsDAO = new StatsDAO();
+    
+    // Background loading: JDBC runs off the EDT, results are applied back on it
+    private final UiLoader loader = new UiLoader();
+    
+    // Retained panels: built once, shown through a CardLayout and refreshed in place when dirty
+    private final CardLayout cards = new CardLayout();
+    private final Map<String, JPanel> panels = new HashMap<>();
+    private final Set<String> dirtyPanels = new HashSet<>();
+    private String shownPanel;
+    private final List<EventBus.Subscription<?>> subscriptions = new ArrayList<>();
+    private JLabel statBooksValue, statMembersValue, statCurrentValue, statOverdueValue;
+    private JPanel activityList;
+    private JComboBox<String> issueMemberCombo, issueBookCombo;
 
     public Dashboard() {
         setTitle("📚 LibraryFlow - Management Dashboard");
@@ -75,8 +97,39 @@ public class Dashboard extends JFrame {
             // Use default look and feel
         }
         
+        SearchIndex.warmUpAsync();
+        ActivityFeed.warmUpAsync();
+        MaintenanceScheduler.start();
         initComponents();
-        loadAllData();
+        subscribeToChanges();
+    }
+    
+    // Committed changes mark only the panels that show the changed data; the visible one
+    // refreshes right away through the tables' delta refresh
+    private void subscribeToChanges() {
+        subscriptions.add(EventBus.subscribeOnEdt(DomainEvent.BookChanged.class,
+            batch -> markDirty("books", "dashboard", "issue", "current", "overdue")));
+        subscriptions.add(EventBus.subscribeOnEdt(DomainEvent.MemberChanged.class,
+            batch -> markDirty("members", "dashboard", "issue", "current", "overdue")));
+        subscriptions.add(EventBus.subscribeOnEdt(DomainEvent.IssueCreated.class,
+            batch -> markDirty("current", "overdue", "dashboard", "issue")));
+        subscriptions.add(EventBus.subscribeOnEdt(DomainEvent.IssueReturned.class,
+            batch -> markDirty("current", "overdue", "dashboard", "issue")));
+        subscriptions.add(EventBus.subscribeOnEdt(DomainEvent.IssueRenewed.class,
+            batch -> markDirty("current", "overdue", "dashboard")));
+        subscriptions.add(EventBus.subscribeOnEdt(DomainEvent.OverdueChanged.class,
+            batch -> markDirty("overdue", "dashboard")));
+        subscriptions.add(EventBus.subscribeOnEdt(DomainEvent.Resync.class, batch -> loadAllData()));
+    }
+    
+    @Override
+    public void dispose() {
+        for (EventBus.Subscription<?> subscription : subscriptions) {
+            subscription.cancel();
+        }
+        subscriptions.clear();
+        cancelLoads();
+        super.dispose();
     }
     
     private void customizeUIComponents() {
@@ -108,7 +161,7 @@ public class Dashboard extends JFrame {
         contentPanel.setBackground(LIGHT_GRAY);
         
         // Create main content area
-        mainContentArea = new JPanel(new BorderLayout());
+        mainContentArea = new JPanel(cards);
         mainContentArea.setBackground(LIGHT_GRAY);
         mainContentArea.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         
@@ -276,31 +329,89 @@ public class Dashboard extends JFrame {
     }
     
     private void switchPanel(String panelName) {
-        mainContentArea.removeAll();
+        if (shownPanel != null && !shownPanel.equals(panelName) && cancelLoads()) {
+            // The panel being left lost loads that had not finished; catch up when it is shown again
+            dirtyPanels.add(shownPanel);
+        }
         
+        JPanel panel = panels.get(panelName);
+        if (panel == null) {
+            panel = createPanel(panelName);
+            panels.put(panelName, panel);
+            mainContentArea.add(panel, panelName);
+            dirtyPanels.remove(panelName); // built with fresh data
+        } else if (dirtyPanels.remove(panelName)) {
+            refreshPanel(panelName);
+        }
+        
+        cards.show(mainContentArea, panelName);
+        shownPanel = panelName;
+    }
+    
+    private JPanel createPanel(String panelName) {
+        switch (panelName) {
+            case "books":
+                return createBooksPanel();
+            case "members":
+                return createMembersPanel();
+            case "issue":
+                return createIssuePanel();
+            case "current":
+                return createCurrentIssuesPanel();
+            case "overdue":
+                return createOverduePanel();
+            default:
+                return createDashboardPanel();
+        }
+    }
+    
+    // Re-fetches a retained panel's data without rebuilding its components
+    private void refreshPanel(String panelName) {
         switch (panelName) {
             case "dashboard":
-                mainContentArea.add(createDashboardPanel(), BorderLayout.CENTER);
+                refreshStats();
+                refreshRecentActivity();
                 break;
             case "books":
-                mainContentArea.add(createBooksPanel(), BorderLayout.CENTER);
+                booksTableModel.refresh();
                 break;
             case "members":
-                mainContentArea.add(createMembersPanel(), BorderLayout.CENTER);
+                membersTableModel.refresh();
                 break;
             case "issue":
-                mainContentArea.add(createIssuePanel(), BorderLayout.CENTER);
+                loadMembersCombo(issueMemberCombo);
+                loadAvailableBooksCombo(issueBookCombo);
                 break;
             case "current":
-                mainContentArea.add(createCurrentIssuesPanel(), BorderLayout.CENTER);
+                currentIssuesTableModel.refresh();
                 break;
             case "overdue":
-                mainContentArea.add(createOverduePanel(), BorderLayout.CENTER);
+                overdueTableModel.refresh();
                 break;
         }
-        
-        mainContentArea.revalidate();
-        mainContentArea.repaint();
+    }
+    
+    private boolean cancelLoads() {
+        boolean cancelled = loader.cancelAll();
+        for (PagedTableModel<?> model : new PagedTableModel<?>[] {
+                booksTableModel, membersTableModel, currentIssuesTableModel, overdueTableModel }) {
+            if (model != null && model.cancelPending()) {
+                cancelled = true;
+            }
+        }
+        return cancelled;
+    }
+    
+    // Marks panels stale after a change; the visible one refreshes now, the rest when next shown
+    private void markDirty(String... panelNames) {
+        for (String name : panelNames) {
+            if (panels.containsKey(name)) {
+                dirtyPanels.add(name);
+            }
+        }
+        if (shownPanel != null && dirtyPanels.contains(shownPanel)) {
+            switchPanel(shownPanel);
+        }
     }
     
     private void showDashboard() {
@@ -345,27 +456,38 @@ public class Dashboard extends JFrame {
         statsPanel.setBackground(LIGHT_GRAY);
         statsPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 30, 0));
         
-        // Get stats data
-        int totalBooks = 0, totalMembers = 0, currentIssues = 0, overdueBooks = 0;
-        try {
-            totalBooks = bookDAO.getAllBooks().size();
-            totalMembers = memberDAO.getAllMembers().size();
-            currentIssues = issueDAO.getCurrentIssues().size();
-            overdueBooks = issueDAO.getOverdueIssues().size();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        // Cards show a placeholder until the aggregate query returns
+        statBooksValue = new JLabel("…");
+        statMembersValue = new JLabel("…");
+        statCurrentValue = new JLabel("…");
+        statOverdueValue = new JLabel("…");
         
-        // Create stat cards
-        statsPanel.add(createStatCard("📚 Total Books", String.valueOf(totalBooks), PRIMARY_COLOR));
-        statsPanel.add(createStatCard("👥 Total Members", String.valueOf(totalMembers), SUCCESS_COLOR));
-        statsPanel.add(createStatCard("📋 Current Issues", String.valueOf(currentIssues), WARNING_COLOR));
-        statsPanel.add(createStatCard("⚠️ Overdue Books", String.valueOf(overdueBooks), DANGER_COLOR));
+        statsPanel.add(createStatCard("📚 Total Books", statBooksValue, PRIMARY_COLOR));
+        statsPanel.add(createStatCard("👥 Total Members", statMembersValue, SUCCESS_COLOR));
+        statsPanel.add(createStatCard("📋 Current Issues", statCurrentValue, WARNING_COLOR));
+        statsPanel.add(createStatCard("⚠️ Overdue Books", statOverdueValue, DANGER_COLOR));
+        
+        refreshStats();
         
         return statsPanel;
     }
     
-    private JPanel createStatCard(String title, String value, Color color) {
+    private void refreshStats() {
+        // One aggregate query, cached briefly
+        loader.load("stats", statsDAO::getStats, stats -> {
+            statBooksValue.setText(String.valueOf(stats.getTotalBooks()));
+            statMembersValue.setText(String.valueOf(stats.getTotalMembers()));
+            statCurrentValue.setText(String.valueOf(stats.getCurrentIssues()));
+            statOverdueValue.setText(String.valueOf(stats.getOverdueIssues()));
+        }, e -> {
+            e.printStackTrace();
+            for (JLabel label : new JLabel[] { statBooksValue, statMembersValue, statCurrentValue, statOverdueValue }) {
+                label.setText("0");
+            }
+        });
+    }
+    
+    private JPanel createStatCard(String title, JLabel valueLabel, Color color) {
         JPanel card = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
@@ -393,7 +515,6 @@ public class Dashboard extends JFrame {
         titleLabel.setForeground(new Color(108, 117, 125));
         titleLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        JLabel valueLabel = new JLabel(value);
         valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 36));
         valueLabel.setForeground(color);
         valueLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -429,56 +550,63 @@ public class Dashboard extends JFrame {
         titleLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
         
         // Activity list (real data from recent issues)
-        JPanel activityList = new JPanel();
+        activityList = new JPanel();
         activityList.setLayout(new BoxLayout(activityList, BoxLayout.Y_AXIS));
         activityList.setBackground(WHITE);
         
-        try {
-            // Get recent issues (last 10)
-            List<Issue> recentIssues = issueDAO.getAllIssues();
-            if (recentIssues.isEmpty()) {
-                JLabel noActivityLabel = new JLabel("📭 No recent activity");
-                noActivityLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-                noActivityLabel.setForeground(Color.GRAY);
-                noActivityLabel.setBorder(BorderFactory.createEmptyBorder(20, 10, 20, 10));
-                activityList.add(noActivityLabel);
+        activityList.add(createActivityMessage("⏳ Loading recent activity...", Color.GRAY));
+        refreshRecentActivity();
+        
+        JScrollPane scrollPane = new JScrollPane(activityList);
+        scrollPane.setBorder(null);
+        scrollPane.setBackground(WHITE);
+        
+        activityPanel.add(titleLabel, BorderLayout.NORTH);
+        activityPanel.add(scrollPane, BorderLayout.CENTER);
+        
+        return activityPanel;
+    }
+    
+    private void refreshRecentActivity() {
+        // Served from ActivityFeed's in-memory ring; only the very first call reads the database
+        loader.load("activity", () -> ActivityFeed.latest(5), recent -> {
+            activityList.removeAll();
+            if (recent.isEmpty()) {
+                activityList.add(createActivityMessage("📭 No recent activity", Color.GRAY));
             } else {
-                // Show last 5 issues as activity
-                int count = 0;
-                for (int i = recentIssues.size() - 1; i >= 0 && count < 5; i--, count++) {
-                    Issue issue = recentIssues.get(i);
+                for (ActivityFeed.Entry entry : recent) {
                     String activity;
                     Color color;
-                    String timeAgo = getTimeAgo(issue.getIssueDate());
+                    String timeAgo = getTimeAgo(entry.getDate());
                     
-                    if ("RETURNED".equals(issue.getStatus())) {
-                        activity = "🔄 Book '" + issue.getBookTitle() + "' returned by " + issue.getMemberName();
+                    if (entry.getKind() == ActivityFeed.Kind.RETURNED) {
+                        activity = "🔄 Book '" + entry.getBookTitle() + "' returned by " + entry.getMemberName();
                         color = SUCCESS_COLOR;
                     } else {
-                        activity = "📋 Book '" + issue.getBookTitle() + "' issued to " + issue.getMemberName();
+                        activity = "📋 Book '" + entry.getBookTitle() + "' issued to " + entry.getMemberName();
                         color = WARNING_COLOR;
                     }
                     
                     activityList.add(createActivityItem(activity, timeAgo, color));
                 }
             }
-        } catch (SQLException e) {
+            activityList.revalidate();
+            activityList.repaint();
+        }, e -> {
             e.printStackTrace();
-            JLabel errorLabel = new JLabel("❌ Error loading recent activity");
-            errorLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            errorLabel.setForeground(Color.RED);
-            errorLabel.setBorder(BorderFactory.createEmptyBorder(20, 10, 20, 10));
-            activityList.add(errorLabel);
-        }
-        
-        JScrollPane scrollPane = new JScrollPane(activityList);
-        scrollPane.setBorder(null);
-        scrollPane.setBackground(WHITE);
-        
-        activityPanel.add(titleLabel, BorderLayout.NORTH);
-        activityPanel.add(scrollPane, BorderLayout.CENTER);
-        
-        return activityPanel;
+            activityList.removeAll();
+            activityList.add(createActivityMessage("❌ Error loading recent activity", Color.RED));
+            activityList.revalidate();
+            activityList.repaint();
+        });
+    }
+    
+    private JLabel createActivityMessage(String text, Color color) {
+        JLabel label = new JLabel(text);
+        label.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        label.setForeground(color);
+        label.setBorder(BorderFactory.createEmptyBorder(20, 10, 20, 10));
+        return label;
     }
     
     private JPanel createActivityItem(String activity, String time, Color color) {
@@ -507,7 +635,7 @@ public class Dashboard extends JFrame {
     }
     
     private String getTimeAgo(LocalDate date) {
-        LocalDate now = LocalDate.now();
+        LocalDate now = BusinessDate.today();
         long daysDiff = java.time.temporal.ChronoUnit.DAYS.between(date, now);
         
         if (daysDiff == 0) {
@@ -550,12 +678,8 @@ public class Dashboard extends JFrame {
         
         // Books table
         String[] columns = {"ID", "Title", "Author", "Year", "Stock Status", "Actions"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 5; // Only actions column editable
-            }
-        };
+        // Only the rows near the viewport are held; the actions column stays editable
+        PagedTableModel<Book> model = new PagedTableModel<>(columns, 5, this::bookRow);
         
         JTable table = createModernTable(model);
         
@@ -572,7 +696,7 @@ public class Dashboard extends JFrame {
                 int row = table.rowAtPoint(e.getPoint());
                 int col = table.columnAtPoint(e.getPoint());
                 
-                if (row >= 0 && col == 5) { // Actions column
+                if (row >= 0 && col == 5 && table.getValueAt(row, 0) != null) { // Actions column (row loaded)
                     int bookId = (Integer) table.getValueAt(row, 0);
                     String bookTitle = (String) table.getValueAt(row, 1);
                     
@@ -638,12 +762,8 @@ public class Dashboard extends JFrame {
         
         // Members table
         String[] columns = {"ID", "Name", "Email", "Phone", "Address", "Join Date", "Actions"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 6; // Only actions column editable
-            }
-        };
+        // Only the rows near the viewport are held; the actions column stays editable
+        PagedTableModel<Member> model = new PagedTableModel<>(columns, 6, this::memberRow);
         
         JTable table = createModernTable(model);
         
@@ -660,16 +780,16 @@ public class Dashboard extends JFrame {
                 int row = table.rowAtPoint(e.getPoint());
                 int col = table.columnAtPoint(e.getPoint());
                 
-                if (row >= 0 && col == 6) { // Actions column
+                if (row >= 0 && col == 6 && table.getValueAt(row, 0) != null) { // Actions column (row loaded)
                     int memberId = (Integer) table.getValueAt(row, 0);
                     String memberName = (String) table.getValueAt(row, 1);
                     
-                    String[] options = {"✏️ Edit", "🗑️ Delete", "❌ Cancel"};
+                    String[] options = {"✏️ Edit", "💰 Pay Fine", "🗑️ Delete", "❌ Cancel"};
                     int choice = JOptionPane.showOptionDialog(
                         Dashboard.this,
                         "Choose action for: " + memberName,
                         "Member Actions",
-                        JOptionPane.YES_NO_CANCEL_OPTION,
+                        JOptionPane.DEFAULT_OPTION,
                         JOptionPane.QUESTION_MESSAGE,
                         null,
                         options,
@@ -678,7 +798,9 @@ public class Dashboard extends JFrame {
                     
                     if (choice == 0) { // Edit
                         showEditMemberDialog(memberId);
-                    } else if (choice == 1) { // Delete
+                    } else if (choice == 1) { // Pay Fine
+                        recordFinePayment(memberId, memberName);
+                    } else if (choice == 2) { // Delete
                         deleteMember(memberId, memberName);
                     }
                 }
@@ -756,6 +878,7 @@ public class Dashboard extends JFrame {
         JComboBox<String> memberCombo = new JComboBox<>();
         memberCombo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         memberCombo.setPreferredSize(new Dimension(0, 40));
+        issueMemberCombo = memberCombo;
         loadMembersCombo(memberCombo);
         
         // Book selection
@@ -766,6 +889,7 @@ public class Dashboard extends JFrame {
         JComboBox<String> bookCombo = new JComboBox<>();
         bookCombo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         bookCombo.setPreferredSize(new Dimension(0, 40));
+        issueBookCombo = bookCombo;
         loadAvailableBooksCombo(bookCombo);
         
         // Issue Date selection
@@ -773,18 +897,18 @@ public class Dashboard extends JFrame {
         issueDateLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
         issueDateLabel.setForeground(INFO_COLOR);
         
-        DatePickerField issueDatePicker = new DatePickerField(LocalDate.now());
-        issueDatePicker.setMinDate(LocalDate.now().minusDays(7)); // Allow up to 7 days back
-        issueDatePicker.setMaxDate(LocalDate.now()); // Cannot select future dates
+        DatePickerField issueDatePicker = new DatePickerField(BusinessDate.today());
+        issueDatePicker.setMinDate(BusinessDate.today().minusDays(7)); // Allow up to 7 days back
+        issueDatePicker.setMaxDate(BusinessDate.today()); // Cannot select future dates
         
         // Due Date selection
         JLabel dueDateLabel = new JLabel("Due Date:");
         dueDateLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
         dueDateLabel.setForeground(INFO_COLOR);
         
-        DatePickerField dueDatePicker = new DatePickerField(LocalDate.now().plusDays(14));
-        dueDatePicker.setMinDate(LocalDate.now().plusDays(1)); // At least tomorrow
-        dueDatePicker.setMaxDate(LocalDate.now().plusDays(90)); // Max 90 days loan
+        DatePickerField dueDatePicker = new DatePickerField(BusinessDate.today().plusDays(14));
+        dueDatePicker.setMinDate(BusinessDate.today().plusDays(1)); // At least tomorrow
+        dueDatePicker.setMaxDate(BusinessDate.today().plusDays(90)); // Max 90 days loan
         
         // Auto-update due date when issue date changes
         issueDatePicker.addActionListener(e -> {
@@ -857,14 +981,11 @@ public class Dashboard extends JFrame {
         
         // Current issues table
         String[] columns = {"Issue ID", "Book Title", "Member Name", "Issue Date", "Due Date", "Days", "Actions"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 6; // Only actions column editable
-            }
-        };
+        // Only the rows near the viewport are held; the actions column stays editable
+        PagedTableModel<Issue> model = new PagedTableModel<>(columns, 6, this::currentIssueRow);
         
         JTable table = createModernTable(model);
+        this.currentIssuesTableModel = model;
         loadCurrentIssues(model);
         
         // Add click handler for return action
@@ -873,7 +994,7 @@ public class Dashboard extends JFrame {
             public void mouseClicked(MouseEvent e) {
                 int row = table.getSelectedRow();
                 int col = table.getSelectedColumn();
-                if (row >= 0 && col == 6) { // Actions column
+                if (row >= 0 && col == 6 && table.getValueAt(row, 0) != null) { // Actions column (row loaded)
                     int issueId = (Integer) table.getValueAt(row, 0);
                     String bookTitle = (String) table.getValueAt(row, 1);
                     String memberName = (String) table.getValueAt(row, 2);
@@ -926,14 +1047,11 @@ public class Dashboard extends JFrame {
         
         // Overdue table
         String[] columns = {"Issue ID", "Book Title", "Member Name", "Issue Date", "Due Date", "Days Overdue", "Fine Amount", "Actions"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 7; // Only actions column editable
-            }
-        };
+        // Only the rows near the viewport are held; the actions column stays editable
+        PagedTableModel<Issue> model = new PagedTableModel<>(columns, 7, this::overdueRow);
         
         JTable table = createModernTable(model);
+        this.overdueTableModel = model;
         loadOverdueBooks(model);
         
         // Add click handler for return/notify actions
@@ -942,7 +1060,7 @@ public class Dashboard extends JFrame {
             public void mouseClicked(MouseEvent e) {
                 int row = table.getSelectedRow();
                 int col = table.getSelectedColumn();
-                if (row >= 0 && col == 7) { // Actions column (now column 7)
+                if (row >= 0 && col == 7 && table.getValueAt(row, 0) != null) { // Actions column (row loaded)
                     int issueId = (Integer) table.getValueAt(row, 0);
                     String bookTitle = (String) table.getValueAt(row, 1);
                     String memberName = (String) table.getValueAt(row, 2);
@@ -962,7 +1080,7 @@ public class Dashboard extends JFrame {
                     );
                     
                     if (choice == 0) { // Return Book
-                        processOverdueBookReturn(issueId, bookTitle, memberName, fineAmount);
+                        processOverdueBookReturn(issueId, bookTitle, memberName);
                     } else if (choice == 1) { // Send Reminder
                         sendOverdueReminder(memberName, bookTitle);
                     }
@@ -1282,8 +1400,23 @@ public class Dashboard extends JFrame {
         return searchPanel;
     }
     
-    private JTable createModernTable(DefaultTableModel model) {
-        JTable table = new JTable(model);
+    private JTable createModernTable(TableModel model) {
+        JTable table = new JTable(model) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                // Loading placeholder while the first rows are fetched in the background
+                if (getRowCount() == 0 && getModel() instanceof PagedTableModel
+                        && ((PagedTableModel<?>) getModel()).isLoading()) {
+                    Graphics2D g2d = (Graphics2D) g;
+                    g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                    g2d.setFont(new Font("Segoe UI", Font.ITALIC, 14));
+                    g2d.setColor(new Color(108, 117, 125));
+                    g2d.drawString("⏳ Loading...", 20, 30);
+                }
+            }
+        };
+        table.setFillsViewportHeight(true);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         table.setRowHeight(45);
         table.setGridColor(new Color(240, 240, 240));
@@ -1311,220 +1444,252 @@ public class Dashboard extends JFrame {
     }
     
     // Data loading methods
-    private void loadBooks(DefaultTableModel model) {
-        try {
-            List<Book> books = bookDAO.getAllBooks();
-            model.setRowCount(0);
-            for (Book book : books) {
-                Object[] row = {
-                    book.getId(),
-                    book.getTitle(),
-                    book.getAuthor(),
-                    book.getYear(),
-                    book.getQuantity() > 0 ? "✅ Available (" + book.getQuantity() + ")" : "❌ Out of Stock",
-                    "Edit | Delete"
-                };
-                model.addRow(row);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showModernNotification("Error loading books: " + e.getMessage(), "Error");
-        }
+    
+    private void loadBooks(PagedTableModel<Book> model) {
+        model.setErrorHandler(e -> showModernNotification("Error loading books: " + e.getMessage(), "Error"));
+        model.setSource(new PagedTableModel.PageSource<Book>() {
+            @Override
+            public int count() throws SQLException {
+                return bookDAO.countBooks();
+            }
+            
+            @Override
+            public List<Book> fetch(int offset, int limit, Book anchor, int skip) throws SQLException {
+                // Seeks from the nearest cached page's last id; OFFSET only steps over the gap
+                return bookDAO.getBooksAt(anchor != null ? anchor.getId() : null, skip, limit);
+            }
+        });
     }
     
-    private void loadMembers(DefaultTableModel model) {
-        try {
-            List<Member> members = memberDAO.getAllMembers();
-            model.setRowCount(0);
-            for (Member member : members) {
-                Object[] row = {
-                    member.getId(),
-                    member.getName(),
-                    member.getEmail(),
-                    member.getPhone(),
-                    member.getAddress(),
-                    member.getJoinDate(),
-                    "Edit | Delete"
-                };
-                model.addRow(row);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showModernNotification("Error loading members: " + e.getMessage(), "Error");
-        }
+    private void loadMembers(PagedTableModel<Member> model) {
+        model.setErrorHandler(e -> showModernNotification("Error loading members: " + e.getMessage(), "Error"));
+        model.setSource(new PagedTableModel.PageSource<Member>() {
+            @Override
+            public int count() throws SQLException {
+                return memberDAO.countMembers();
+            }
+            
+            @Override
+            public List<Member> fetch(int offset, int limit, Member anchor, int skip) throws SQLException {
+                return memberDAO.getMembersAt(anchor != null ? anchor.getId() : null, skip, limit);
+            }
+        });
     }
     
-    private void loadCurrentIssues(DefaultTableModel model) {
-        try {
-            List<Issue> issues = issueDAO.getCurrentIssues();
-            model.setRowCount(0);
-            for (Issue issue : issues) {
-                long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(
-                    issue.getIssueDate(),
-                    java.time.LocalDate.now()
-                );
-                Object[] row = {
-                    issue.getId(),
-                    issue.getBookTitle(),
-                    issue.getMemberName(),
-                    issue.getIssueDate(),
-                    issue.getDueDate(),
-                    daysBetween + " days",
-                    "Return"
-                };
-                model.addRow(row);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showModernNotification("Error loading current issues: " + e.getMessage(), "Error");
-        }
+    private void loadCurrentIssues(PagedTableModel<Issue> model) {
+        model.setErrorHandler(e -> showModernNotification("Error loading current issues: " + e.getMessage(), "Error"));
+        model.setSource(issueSource(IssueFilter.CURRENT));
     }
     
-    private void loadOverdueBooks(DefaultTableModel model) {
-        try {
-            List<Issue> overdueIssues = issueDAO.getOverdueIssues();
-            model.setRowCount(0);
+    private void loadOverdueBooks(PagedTableModel<Issue> model) {
+        model.setErrorHandler(e -> showModernNotification("Error loading overdue books: " + e.getMessage(), "Error"));
+        model.setSource(issueSource(IssueFilter.OVERDUE));
+    }
+    
+    private PagedTableModel.PageSource<Issue> issueSource(IssueFilter filter) {
+        return new PagedTableModel.PageSource<Issue>() {
+            @Override
+            public int count() throws SQLException {
+                return issueDAO.countIssues(filter);
+            }
             
-            for (Issue issue : overdueIssues) {
-                long daysOverdue = java.time.temporal.ChronoUnit.DAYS.between(
-                    issue.getDueDate(),
-                    java.time.LocalDate.now()
-                );
-                
-                // Calculate fine amount using configurable rate
-                double fineAmount = daysOverdue * FINE_PER_DAY;
-                String fineDisplay = String.format("Rs %.2f", fineAmount);
-                
-                Object[] row = {
-                    issue.getId(),
-                    issue.getBookTitle(),
-                    issue.getMemberName(),
-                    issue.getIssueDate(),
-                    issue.getDueDate(),
-                    daysOverdue + " days",
-                    fineDisplay,
-                    "Return | Remind"
-                };
-                model.addRow(row);
-            }
-        } catch (SQLException e) {
+            @Override
+            public List<Issue> fetch(int offset, int limit, Issue anchor, int skip) throws SQLException {
+                return issueDAO.getIssuesAt(filter, anchor, skip, limit);
+            }
+        };
+    }
+    
+    // Shows results computed in the background, e.g. a search, in a paged table
+    private <T> void showResults(String slot, PagedTableModel<T> model, SqlCall<List<T>> query,
+                                 String errorMessage, Consumer<Integer> onLoaded) {
+        loader.load(slot, query, results -> {
+            model.setSource(PagedTableModel.listSource(results));
+            onLoaded.accept(results.size());
+        }, e -> {
             e.printStackTrace();
-            showModernNotification("Error loading overdue books: " + e.getMessage(), "Error");
-        }
+            showModernNotification(errorMessage + e.getMessage(), "Error");
+        });
+    }
+    
+    // Row formatters run on the loader thread, so they must not touch Swing components
+    private Object[] bookRow(Book book) {
+        return new Object[] {
+            book.getId(),
+            book.getTitle(),
+            book.getAuthor(),
+            book.getYear(),
+            book.isAvailable() ? "✅ Available (" + book.getAvailableCopies() + " of " + book.getQuantity() + ")" : "❌ Out of Stock",
+            "Edit | Delete"
+        };
+    }
+    
+    private Object[] memberRow(Member member) {
+        return new Object[] {
+            member.getId(),
+            member.getName(),
+            member.getEmail(),
+            member.getPhone(),
+            member.getAddress(),
+            member.getJoinDate(),
+            "Edit | Delete"
+        };
+    }
+    
+    private Object[] currentIssueRow(Issue issue) {
+        long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(
+            issue.getIssueDate(),
+            BusinessDate.today()
+        );
+        return new Object[] {
+            issue.getId(),
+            issue.getBookTitle(),
+            issue.getMemberName(),
+            issue.getIssueDate(),
+            issue.getDueDate(),
+            daysBetween + " days",
+            "Return"
+        };
+    }
+    
+    private Object[] overdueRow(Issue issue) {
+        long daysOverdue = java.time.temporal.ChronoUnit.DAYS.between(
+            issue.getDueDate(),
+            BusinessDate.today()
+        );
+        
+        // Stored by the nightly overdue job (MaintenanceScheduler.accrueOverdueFines)
+        String fineDisplay = String.format("Rs %.2f", issue.getFineAmount());
+        
+        return new Object[] {
+            issue.getId(),
+            issue.getBookTitle(),
+            issue.getMemberName(),
+            issue.getIssueDate(),
+            issue.getDueDate(),
+            daysOverdue + " days",
+            fineDisplay,
+            "Return | Remind"
+        };
     }
     
     private void searchBooks(String searchText) {
-        try {
-            List<Book> allBooks = bookDAO.getAllBooks();
-            booksTableModel.setRowCount(0);
-            
-            String searchLower = searchText.toLowerCase();
-            int foundCount = 0;
-            
-            for (Book book : allBooks) {
-                // Search in title, author, and year
-                boolean matches = book.getTitle().toLowerCase().contains(searchLower) ||
-                                book.getAuthor().toLowerCase().contains(searchLower) ||
-                                String.valueOf(book.getYear()).contains(searchText) ||
-                                String.valueOf(book.getId()).contains(searchText);
-                
-                if (matches) {
-                    Object[] row = {
-                        book.getId(),
-                        book.getTitle(),
-                        book.getAuthor(),
-                        book.getYear(),
-                        book.getQuantity() > 0 ? "✅ Available (" + book.getQuantity() + ")" : "❌ Out of Stock",
-                        "Edit | Delete"
-                    };
-                    booksTableModel.addRow(row);
-                    foundCount++;
+        showResults("books", booksTableModel, () -> {
+            if (!SearchIndex.isLoaded()) {
+                // Cold start: the index is still being built from the catalog, so answer
+                // from the FTS table instead of waiting for it
+                return searchBooksFts(searchText);
+            }
+            TrigramIndex<Book> index = SearchIndex.books();
+            List<Book> results = new ArrayList<>(index.search(searchText, SEARCH_LIMIT));
+            // Ids are not part of the indexed text, so an exact id still finds its book
+            if (searchText.trim().matches("\\d{1,9}")) {
+                Book byId = index.get(Integer.parseInt(searchText.trim()));
+                if (byId != null && results.stream().noneMatch(b -> b.getId() == byId.getId())) {
+                    results.add(0, byId);
                 }
             }
-            
+            return results;
+        }, "Error searching books: ", foundCount -> {
             // Show notification with results
             if (foundCount == 0) {
                 showModernNotification("No books found matching '" + searchText + "'", "Info");
             } else {
                 showModernNotification("Found " + foundCount + " book(s) matching '" + searchText + "'", "Success");
             }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showModernNotification("Error searching books: " + e.getMessage(), "Error");
+        });
+    }
+    
+    private List<Book> searchBooksFts(String searchText) throws SQLException {
+        List<Book> results = new ArrayList<>(bookDAO.search(searchText, SEARCH_LIMIT));
+        if (searchText.trim().matches("\\d{1,9}")) {
+            Book byId = bookDAO.getBookById(Integer.parseInt(searchText.trim()));
+            if (byId != null && results.stream().noneMatch(b -> b.getId() == byId.getId())) {
+                results.add(0, byId);
+            }
+        }
+        return results;
+    }
+    
+    private List<Member> searchMembersSql(String searchText) throws SQLException {
+        List<Member> results = new ArrayList<>(memberDAO.searchByPrefix(searchText, SEARCH_LIMIT));
+        if (searchText.trim().matches("\\d{1,9}")) {
+            Member byId = memberDAO.getMemberById(Integer.parseInt(searchText.trim()));
+            if (byId != null && results.stream().noneMatch(m -> m.getId() == byId.getId())) {
+                results.add(0, byId);
+            }
         }
+        return results;
     }
     
     private void searchMembers(String searchText) {
-        try {
-            List<Member> allMembers = memberDAO.getAllMembers();
-            membersTableModel.setRowCount(0);
-            
-            String searchLower = searchText.toLowerCase();
-            int foundCount = 0;
-            
-            for (Member member : allMembers) {
-                // Search in name, email, phone, and address
-                boolean matches = member.getName().toLowerCase().contains(searchLower) ||
-                                member.getEmail().toLowerCase().contains(searchLower) ||
-                                member.getPhone().toLowerCase().contains(searchLower) ||
-                                member.getAddress().toLowerCase().contains(searchLower) ||
-                                String.valueOf(member.getId()).contains(searchText);
-                
-                if (matches) {
-                    Object[] row = {
-                        member.getId(),
-                        member.getName(),
-                        member.getEmail(),
-                        member.getPhone(),
-                        member.getAddress(),
-                        member.getJoinDate(),
-                        "Edit | Delete"
-                    };
-                    membersTableModel.addRow(row);
-                    foundCount++;
+        showResults("members", membersTableModel, () -> {
+            if (!SearchIndex.isLoaded()) {
+                // Cold start: answer name/email prefixes from SQL instead of waiting for the index
+                return searchMembersSql(searchText);
+            }
+            TrigramIndex<Member> index = SearchIndex.members();
+            List<Member> results = new ArrayList<>(index.search(searchText, SEARCH_LIMIT));
+            if (searchText.trim().matches("\\d{1,9}")) {
+                Member byId = index.get(Integer.parseInt(searchText.trim()));
+                if (byId != null && results.stream().noneMatch(m -> m.getId() == byId.getId())) {
+                    results.add(0, byId);
                 }
             }
-            
+            return results;
+        }, "Error searching members: ", foundCount -> {
             // Show notification with results
             if (foundCount == 0) {
                 showModernNotification("No members found matching '" + searchText + "'", "Info");
             } else {
                 showModernNotification("Found " + foundCount + " member(s) matching '" + searchText + "'", "Success");
             }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showModernNotification("Error searching members: " + e.getMessage(), "Error");
-        }
+        });
     }
     
+    // Combos stay disabled until their items arrive, then get the whole list in one model swap
     private void loadMembersCombo(JComboBox<String> combo) {
-        try {
-            List<Member> members = memberDAO.getAllMembers();
-            combo.removeAllItems();
-            for (Member member : members) {
-                combo.addItem(member.getId() + " - " + member.getName());
-            }
-        } catch (SQLException e) {
+        combo.setEnabled(false);
+        loader.load("membersCombo", () -> {
+            List<String> items = new ArrayList<>();
+            for (Member member : memberDAO.getAllMembers()) {
+                items.add(member.getId() + " - " + member.getName());
+            }
+            return items.toArray(new String[0]);
+        }, items -> {
+            Object selected = combo.getSelectedItem();
+            combo.setModel(new DefaultComboBoxModel<>(items));
+            if (selected != null) {
+                combo.setSelectedItem(selected); // kept only if still in the list
+            }
+            combo.setEnabled(true);
+        }, e -> {
             e.printStackTrace();
             showModernNotification("Error loading members: " + e.getMessage(), "Error");
-        }
+        });
     }
     
     private void loadAvailableBooksCombo(JComboBox<String> combo) {
-        try {
-            List<Book> books = bookDAO.getAllBooks();
-            combo.removeAllItems();
-            for (Book book : books) {
-                if (book.getQuantity() > 0) {
-                    combo.addItem(book.getId() + " - " + book.getTitle());
+        combo.setEnabled(false);
+        loader.load("booksCombo", () -> {
+            List<String> items = new ArrayList<>();
+            for (Book book : bookDAO.getAllBooks()) {
+                if (book.isAvailable()) {
+                    items.add(book.getId() + " - " + book.getTitle());
                 }
             }
-        } catch (SQLException e) {
+            return items.toArray(new String[0]);
+        }, items -> {
+            Object selected = combo.getSelectedItem();
+            combo.setModel(new DefaultComboBoxModel<>(items));
+            if (selected != null) {
+                combo.setSelectedItem(selected); // kept only if still in the list
+            }
+            combo.setEnabled(true);
+        }, e -> {
             e.printStackTrace();
             showModernNotification("Error loading books: " + e.getMessage(), "Error");
-        }
+        });
     }
     
     // Dialog methods
@@ -1591,61 +1756,59 @@ public class Dashboard extends JFrame {
         JButton cancelButton = createModernButton("❌ Cancel", DANGER_COLOR);
         
         saveButton.addActionListener(e -> {
+            String title = titleField.getText().trim();
+            String author = authorField.getText().trim();
+            String yearStr = yearField.getText().trim();
+            String quantityStr = quantityField.getText().trim();
+            
+            // Validation 1: Check for empty fields
+            if (title.isEmpty() || author.isEmpty() || yearStr.isEmpty() || quantityStr.isEmpty()) {
+                showModernNotification("Book title and author must not be empty!", "Error");
+                return;
+            }
+            
+            // Validation 2: Check numeric fields
+            int year, quantity;
             try {
-                String title = titleField.getText().trim();
-                String author = authorField.getText().trim();
-                String yearStr = yearField.getText().trim();
-                String quantityStr = quantityField.getText().trim();
-                
-                // Validation 1: Check for empty fields
-                if (title.isEmpty() || author.isEmpty() || yearStr.isEmpty() || quantityStr.isEmpty()) {
-                    showModernNotification("Book title and author must not be empty!", "Error");
-                    return;
-                }
-                
-                // Validation 2: Check numeric fields
-                int year, quantity;
-                try {
-                    year = Integer.parseInt(yearStr);
-                    quantity = Integer.parseInt(quantityStr);
-                } catch (NumberFormatException ex) {
-                    showModernNotification("Year and Quantity must be valid numbers!", "Error");
-                    return;
-                }
-                
-                // Validation 3: Quantity cannot be negative
-                if (quantity < 0) {
-                    showModernNotification("Quantity cannot be negative!", "Error");
-                    return;
-                }
-                
-                // Validation 4: Year should be reasonable
-                if (year < 1000 || year > java.time.LocalDate.now().getYear() + 1) {
-                    showModernNotification("Please enter a valid publication year!", "Error");
-                    return;
-                }
-                
+                year = Integer.parseInt(yearStr);
+                quantity = Integer.parseInt(quantityStr);
+            } catch (NumberFormatException ex) {
+                showModernNotification("Year and Quantity must be valid numbers!", "Error");
+                return;
+            }
+            
+            // Validation 3: Quantity cannot be negative
+            if (quantity < 0) {
+                showModernNotification("Quantity cannot be negative!", "Error");
+                return;
+            }
+            
+            // Validation 4: Year should be reasonable
+            if (year < 1000 || year > java.time.LocalDate.now().getYear() + 1) {
+                showModernNotification("Please enter a valid publication year!", "Error");
+                return;
+            }
+            
+            Book newBook = new Book(title, author, year, quantity);
+            loader.submit(() -> {
                 // Validation 5: Check for duplicate book (title + author combination)
-                List<Book> existingBooks = bookDAO.getAllBooks();
-                for (Book book : existingBooks) {
-                    if (book.getTitle().equalsIgnoreCase(title) && book.getAuthor().equalsIgnoreCase(author)) {
-                        showModernNotification("A book with this title and author already exists!", "Error");
-                        return;
-                    }
+                if (bookDAO.findByTitleAndAuthor(title, author) != null) {
+                    return false;
                 }
-                
-                Book newBook = new Book(title, author, year, quantity);
                 bookDAO.addBook(newBook);
+                return true;
+            }, added -> {
+                if (!added) {
+                    showModernNotification("A book with this title and author already exists!", "Error");
+                    return;
+                }
                 
                 // Refresh the books table
                 refreshBooksTable();
                 
                 dialog.dispose();
                 showModernNotification("Book added successfully!", "Success");
-                
-            } catch (SQLException ex) {
-                showModernNotification("Error adding book: " + ex.getMessage(), "Error");
-            }
+            }, ex -> showModernNotification("Error adding book: " + ex.getMessage(), "Error"));
         });
         
         cancelButton.addActionListener(e -> dialog.dispose());
@@ -1733,52 +1896,50 @@ public class Dashboard extends JFrame {
         JButton cancelButton = createModernButton("❌ Cancel", DANGER_COLOR);
         
         saveButton.addActionListener(e -> {
-            try {
-                String name = nameField.getText().trim();
-                String email = emailField.getText().trim();
-                String phone = phoneField.getText().trim();
-                String address = addressField.getText().trim();
-                String memberType = (String) typeCombo.getSelectedItem();
-                
-                // Validation 1: Check for empty fields
-                if (name.isEmpty() || email.isEmpty() || phone.isEmpty() || address.isEmpty()) {
-                    showModernNotification("Please fill all fields!", "Error");
-                    return;
-                }
-                
-                // Validation 2: Email format validation
-                if (!email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
-                    showModernNotification("Please enter a valid email address!", "Error");
-                    return;
-                }
-                
-                // Validation 3: Phone number format validation (10 digits)
-                if (!phone.matches("\\d{3}-\\d{3}-\\d{4}") && !phone.matches("\\d{10}")) {
-                    showModernNotification("Phone number should be 10 digits or in format XXX-XXX-XXXX!", "Error");
-                    return;
-                }
-                
+            String name = nameField.getText().trim();
+            String email = emailField.getText().trim();
+            String phone = phoneField.getText().trim();
+            String address = addressField.getText().trim();
+            String memberType = (String) typeCombo.getSelectedItem();
+            
+            // Validation 1: Check for empty fields
+            if (name.isEmpty() || email.isEmpty() || phone.isEmpty() || address.isEmpty()) {
+                showModernNotification("Please fill all fields!", "Error");
+                return;
+            }
+            
+            // Validation 2: Email format validation
+            if (!email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
+                showModernNotification("Please enter a valid email address!", "Error");
+                return;
+            }
+            
+            // Validation 3: Phone number format validation (10 digits)
+            if (!phone.matches("\\d{3}-\\d{3}-\\d{4}") && !phone.matches("\\d{10}")) {
+                showModernNotification("Phone number should be 10 digits or in format XXX-XXX-XXXX!", "Error");
+                return;
+            }
+            
+            Member newMember = new Member(name, email, phone, address, memberType);
+            loader.submit(() -> {
                 // Validation 4: Check for unique email
-                List<Member> existingMembers = memberDAO.getAllMembers();
-                for (Member member : existingMembers) {
-                    if (member.getEmail().equalsIgnoreCase(email)) {
-                        showModernNotification("A member with this email already exists!", "Error");
-                        return;
-                    }
+                if (memberDAO.getMemberByEmail(email) != null) {
+                    return false;
                 }
-                
-                Member newMember = new Member(name, email, phone, address, memberType);
                 memberDAO.addMember(newMember);
+                return true;
+            }, added -> {
+                if (!added) {
+                    showModernNotification("A member with this email already exists!", "Error");
+                    return;
+                }
                 
                 // Refresh the members table
                 refreshMembersTable();
                 
                 dialog.dispose();
                 showModernNotification("Member added successfully!", "Success");
-                
-            } catch (SQLException ex) {
-                showModernNotification("Error adding member: " + ex.getMessage(), "Error");
-            }
+            }, ex -> showModernNotification("Error adding member: " + ex.getMessage(), "Error"));
         });
         
         cancelButton.addActionListener(e -> dialog.dispose());
@@ -1817,79 +1978,79 @@ public class Dashboard extends JFrame {
             }
             int bookId = Integer.parseInt(bookSelection.split(" - ")[0]);
             
-            // Validation 1: Check if book is available (stock > 0)
-            Book book = bookDAO.getBookById(bookId);
-            if (book == null || book.getQuantity() <= 0) {
-                showModernNotification("This book is currently unavailable. All copies are issued.", "Error");
-                return;
-            }
+            // Availability, loan rules and the insert run as one transaction
+            LocalDate today = BusinessDate.today();
+            LocalDate dueDate = today.plusDays(CirculationService.LOAN_PERIOD_DAYS);
+            issueWithFineConfirmation(bookId, memberId, today, dueDate, issue -> {
+                // Refresh the display
+                switchPanel("current"); // Switch to current issues view
+                
+                showModernNotification("Book issued successfully! Due date: " + dueDate, "Success");
+            });
             
-            // Validation 2: Check if member already has this book issued
-            List<Issue> currentIssues = issueDAO.getCurrentIssues();
-            for (Issue issue : currentIssues) {
-                if (issue.getMemberId() == memberId && issue.getBookId() == bookId) {
-                    showModernNotification("This member already has this book issued. Cannot reissue until returned.", "Error");
+        } catch (NumberFormatException e) {
+            showModernNotification("Invalid selection format!", "Error");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            showModernNotification("Please select valid member and book!", "Error");
+        }
+    }
+    
+    // Issues through CirculationService off the EDT; unpaid fines ask the librarian before retrying
+    // with them allowed. onIssued runs on the EDT only for a successful issue; refusals and
+    // errors are reported here.
+    private void issueWithFineConfirmation(int bookId, int memberId, LocalDate issueDate, LocalDate dueDate,
+                                           Consumer<Issue> onIssued) {
+        loader.submit(() -> circulation.issue(bookId, memberId, issueDate, dueDate, false), result -> {
+            if (result.getOutcome() == CirculationResult.Outcome.OUTSTANDING_FINES) {
+                int choice = JOptionPane.showConfirmDialog(
+                    this,
+                    "This member has unpaid fines of Rs " + String.format("%.2f", result.getOutstandingFines()) + 
+                    ".\nDo you still want to issue the book?",
+                    "Unpaid Fines Warning",
+                    JOptionPane.YES_NO_OPTION,
+                    JOptionPane.WARNING_MESSAGE
+                );
+                
+                if (choice != JOptionPane.YES_OPTION) {
                     return;
                 }
+                loader.submit(() -> circulation.issue(bookId, memberId, issueDate, dueDate, true),
+                    retried -> reportIssue(retried, onIssued), this::reportIssueError);
+                return;
             }
-            
-            // Validation 3: Check member's issued book limit (max 3 books)
-            int memberBookCount = 0;
-            for (Issue issue : currentIssues) {
-                if (issue.getMemberId() == memberId) {
-                    memberBookCount++;
-                }
-            }
-            
-            if (memberBookCount >= 3) {
-                showModernNotification("This member has reached the maximum number of issued books (3).", "Error");
-                return;
-            }
-            
-            // Validation 4: Check if member has unpaid fines
-            List<Issue> allIssues = issueDAO.getAllIssues();
-            double totalFines = 0.0;
-            for (Issue issue : allIssues) {
-                if (issue.getMemberId() == memberId && issue.getFineAmount() > 0) {
-                    totalFines += issue.getFineAmount();
-                }
-            }
-            
-            if (totalFines > 0) {
-                int choice = JOptionPane.showConfirmDialog(
-                    this,
-                    "This member has unpaid fines of Rs " + String.format("%.2f", totalFines) + 
-                    ".\nDo you still want to issue the book?",
-                    "Unpaid Fines Warning",
-                    JOptionPane.YES_NO_OPTION,
-                    JOptionPane.WARNING_MESSAGE
-                );
-                
-                if (choice != JOptionPane.YES_OPTION) {
-                    return;
-                }
-            }
-            
-            // All validations passed - proceed with issue
-            LocalDate dueDate = LocalDate.now().plusDays(14);
-            Issue issue = new Issue(bookId, memberId, dueDate);
-            
-            // Issue the book
-            issueDAO.issueBook(issue);
-            
-            // Refresh the display
-            loadAllData();
-            switchPanel("current"); // Switch to current issues view
-            
-            showModernNotification("Book issued successfully! Due date: " + dueDate, "Success");
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showModernNotification("Error issuing book: " + e.getMessage(), "Error");
-        } catch (NumberFormatException e) {
-            showModernNotification("Invalid selection format!", "Error");
-        } catch (ArrayIndexOutOfBoundsException e) {
-            showModernNotification("Please select valid member and book!", "Error");
+            reportIssue(result, onIssued);
+        }, this::reportIssueError);
+    }
+    
+    private void reportIssue(CirculationResult result, Consumer<Issue> onIssued) {
+        if (result.isSuccess()) {
+            onIssued.accept(result.getIssue());
+        } else {
+            showModernNotification(refusalMessage(result), "Error");
+        }
+    }
+    
+    private void reportIssueError(SQLException e) {
+        e.printStackTrace();
+        showModernNotification("Error issuing book: " + e.getMessage(), "Error");
+    }
+    
+    private String refusalMessage(CirculationResult result) {
+        switch (result.getOutcome()) {
+            case BOOK_NOT_FOUND:
+                return "Book not found!";
+            case UNAVAILABLE:
+                return "This book is currently unavailable. All copies are issued.";
+            case ALREADY_HELD:
+                return "This member already has this book issued. Cannot reissue until returned.";
+            case LOAN_LIMIT:
+                return "This member has reached the maximum number of issued books (" + CirculationService.MAX_ACTIVE_LOANS + ").";
+            case OVERDUE:
+                return "This loan is overdue. Please return the book instead of renewing it.";
+            case NOT_ON_LOAN:
+                return "This book has already been returned!";
+            default:
+                return "Request refused: " + result.getOutcome();
         }
     }
     
@@ -1902,7 +2063,7 @@ public class Dashboard extends JFrame {
             }
             
             // Enhanced date validations
-            LocalDate today = LocalDate.now();
+            LocalDate today = BusinessDate.today();
             
             // Validation: Issue date cannot be more than 7 days in the past
             if (issueDate.isBefore(today.minusDays(7))) {
@@ -1963,7 +2124,7 @@ public class Dashboard extends JFrame {
             LocalDate dueLocalDate = dueDate.toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDate();
             
             // Date validations
-            LocalDate today = LocalDate.now();
+            LocalDate today = BusinessDate.today();
             
             // Validation: Issue date cannot be in the future
             if (issueLocalDate.isAfter(today)) {
@@ -1977,75 +2138,14 @@ public class Dashboard extends JFrame {
                 return;
             }
             
-            // Validation 1: Check if book is available (stock > 0)
-            Book book = bookDAO.getBookById(bookId);
-            if (book == null || book.getQuantity() <= 0) {
-                showModernNotification("This book is currently unavailable. All copies are issued.", "Error");
-                return;
-            }
-            
-            // Validation 2: Check if member already has this book issued
-            List<Issue> currentIssues = issueDAO.getCurrentIssues();
-            for (Issue issue : currentIssues) {
-                if (issue.getMemberId() == memberId && issue.getBookId() == bookId) {
-                    showModernNotification("This member already has this book issued. Cannot reissue until returned.", "Error");
-                    return;
-                }
-            }
-            
-            // Validation 3: Check member's issued book limit (max 3 books)
-            int memberBookCount = 0;
-            for (Issue issue : currentIssues) {
-                if (issue.getMemberId() == memberId) {
-                    memberBookCount++;
-                }
-            }
-            
-            if (memberBookCount >= 3) {
-                showModernNotification("This member has reached the maximum number of issued books (3).", "Error");
-                return;
-            }
-            
-            // Validation 4: Check if member has unpaid fines
-            List<Issue> allIssues = issueDAO.getAllIssues();
-            double totalFines = 0.0;
-            for (Issue issue : allIssues) {
-                if (issue.getMemberId() == memberId && issue.getFineAmount() > 0) {
-                    totalFines += issue.getFineAmount();
-                }
-            }
-            
-            if (totalFines > 0) {
-                int choice = JOptionPane.showConfirmDialog(
-                    this,
-                    "This member has unpaid fines of Rs " + String.format("%.2f", totalFines) + 
-                    ".\nDo you still want to issue the book?",
-                    "Unpaid Fines Warning",
-                    JOptionPane.YES_NO_OPTION,
-                    JOptionPane.WARNING_MESSAGE
-                );
+            // Availability, loan rules and the insert run as one transaction
+            issueWithFineConfirmation(bookId, memberId, issueLocalDate, dueLocalDate, issue -> {
+                // Refresh the display
+                switchPanel("current"); // Switch to current issues view
                 
-                if (choice != JOptionPane.YES_OPTION) {
-                    return;
-                }
-            }
-            
-            // All validations passed - proceed with issue using custom dates
-            Issue issue = new Issue(bookId, memberId, dueLocalDate);
-            issue.setIssueDate(issueLocalDate); // Set custom issue date
-            
-            // Issue the book
-            issueDAO.issueBookWithDates(issue, issueLocalDate);
-            
-            // Refresh the display
-            loadAllData();
-            switchPanel("current"); // Switch to current issues view
-            
-            showModernNotification("Book issued successfully!\nIssue date: " + issueLocalDate + "\nDue date: " + dueLocalDate, "Success");
+                showModernNotification("Book issued successfully!\nIssue date: " + issueLocalDate + "\nDue date: " + dueLocalDate, "Success");
+            });
             
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showModernNotification("Error issuing book: " + e.getMessage(), "Error");
         } catch (NumberFormatException e) {
             showModernNotification("Invalid selection format!", "Error");
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -2054,9 +2154,8 @@ public class Dashboard extends JFrame {
     }
     
     private void processBookReturn(int issueId, String bookTitle, String memberName) {
-        try {
+        loader.load("returnCheck", () -> issueDAO.getIssueById(issueId), issue -> {
             // Validation 1: Check if the book was actually issued
-            Issue issue = issueDAO.getIssueById(issueId);
             if (issue == null) {
                 showModernNotification("Issue record not found!", "Error");
                 return;
@@ -2068,12 +2167,8 @@ public class Dashboard extends JFrame {
             }
             
             // Validation 2: Calculate fine if overdue
-            double fineAmount = 0.0;
-            LocalDate today = LocalDate.now();
-            if (today.isAfter(issue.getDueDate())) {
-                long daysOverdue = java.time.temporal.ChronoUnit.DAYS.between(issue.getDueDate(), today);
-                fineAmount = daysOverdue * FINE_PER_DAY; // Rs 10 per day
-            }
+            LocalDate today = BusinessDate.today();
+            double fineAmount = FinePolicy.current().fineFor(issue, today);
             
             // Validation 3: Prevent backdated returns
             if (issue.getIssueDate().isAfter(today)) {
@@ -2096,56 +2191,69 @@ public class Dashboard extends JFrame {
                 fineAmount > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.QUESTION_MESSAGE
             );
             
-            if (choice == JOptionPane.YES_OPTION) {
-                // Return the book with calculated fine
-                issueDAO.returnBook(issueId, fineAmount);
+            if (choice != JOptionPane.YES_OPTION) {
+                return;
+            }
+            // The service prices the fine again inside the return transaction
+            loader.submit(() -> circulation.returnBook(issueId), result -> {
+                if (!result.isSuccess()) {
+                    showModernNotification(refusalMessage(result), "Error");
+                    return;
+                }
                 
                 // Refresh the display
-                loadAllData();
-                switchPanel("current"); // Refresh current issues view
+                switchPanel("current"); // IssueReturned refreshes the affected panels
                 
-                if (fineAmount > 0) {
-                    showModernNotification("Book returned successfully! Fine applied: Rs " + String.format("%.2f", fineAmount), "Warning");
+                double charged = result.getIssue().getFineAmount();
+                if (charged > 0) {
+                    showModernNotification("Book returned successfully! Fine applied: Rs " + String.format("%.2f", charged), "Warning");
                 } else {
                     showModernNotification("Book returned successfully!", "Success");
                 }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showModernNotification("Error returning book: " + e.getMessage(), "Error");
-        }
+            }, e -> reportReturnError("Error returning book: ", e));
+        }, e -> reportReturnError("Error returning book: ", e));
     }
     
-    private void processOverdueBookReturn(int issueId, String bookTitle, String memberName, String fineAmountString) {
-        try {
-            // Parse fine amount from string (remove Rs and convert to double)
-            double fineAmount = Double.parseDouble(fineAmountString.replace("Rs ", ""));
+    private void processOverdueBookReturn(int issueId, String bookTitle, String memberName) {
+        loader.load("returnCheck", () -> issueDAO.getIssueById(issueId), issue -> {
+            if (issue == null || "RETURNED".equals(issue.getStatus())) {
+                showModernNotification("This book has already been returned!", "Error");
+                return;
+            }
+            // Priced like processBookReturn, not read back from the table cell
+            double fineAmount = FinePolicy.current().fineFor(issue, BusinessDate.today());
             
             // Show confirmation dialog with fine calculation
             int choice = JOptionPane.showConfirmDialog(
                 this,
                 "Return overdue book \"" + bookTitle + "\" borrowed by " + memberName + "?\n" +
-                "Fine to be applied: " + fineAmountString,
+                "Fine to be applied: Rs " + String.format("%.2f", fineAmount),
                 "Confirm Overdue Return",
                 JOptionPane.YES_NO_OPTION
             );
             
-            if (choice == JOptionPane.YES_OPTION) {
-                // Return the book with fine
-                issueDAO.returnBook(issueId, fineAmount);
+            if (choice != JOptionPane.YES_OPTION) {
+                return;
+            }
+            // The service prices the fine again inside the return transaction
+            loader.submit(() -> circulation.returnBook(issueId), result -> {
+                if (!result.isSuccess()) {
+                    showModernNotification(refusalMessage(result), "Error");
+                    return;
+                }
                 
                 // Refresh the display
-                loadAllData();
-                switchPanel("overdue"); // Refresh overdue view
+                switchPanel("overdue"); // IssueReturned refreshes the affected panels
                 
-                showModernNotification("Overdue book returned! Fine applied: " + fineAmountString, "Warning");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showModernNotification("Error returning overdue book: " + e.getMessage(), "Error");
-        } catch (NumberFormatException e) {
-            showModernNotification("Error parsing fine amount: " + e.getMessage(), "Error");
-        }
+                showModernNotification("Overdue book returned! Fine applied: Rs " +
+                    String.format("%.2f", result.getIssue().getFineAmount()), "Warning");
+            }, e -> reportReturnError("Error returning overdue book: ", e));
+        }, e -> reportReturnError("Error returning overdue book: ", e));
+    }
+    
+    private void reportReturnError(String prefix, SQLException e) {
+        e.printStackTrace();
+        showModernNotification(prefix + e.getMessage(), "Error");
     }
     
     private void sendOverdueReminder(String memberName, String bookTitle) {
@@ -2160,136 +2268,44 @@ public class Dashboard extends JFrame {
     }
     
     private void searchCurrentIssues(String searchTerm) {
-        try {
-            if (searchTerm.equals("🔍 Search current issues...") || searchTerm.trim().isEmpty()) {
-                // Show all current issues
-                switchPanel("current");
-                return;
-            }
-            
-            // Filter current issues based on search term
-            List<Issue> allIssues = issueDAO.getCurrentIssues();
-            List<Issue> filteredIssues = new ArrayList<>();
-            
-            for (Issue issue : allIssues) {
-                if (issue.getBookTitle().toLowerCase().contains(searchTerm.toLowerCase()) ||
-                    issue.getMemberName().toLowerCase().contains(searchTerm.toLowerCase()) ||
-                    String.valueOf(issue.getId()).contains(searchTerm)) {
-                    filteredIssues.add(issue);
-                }
-            }
-            
-            // Update the current issues table with filtered results
-            updateCurrentIssuesTable(filteredIssues);
-            showModernNotification("Found " + filteredIssues.size() + " current issues matching: " + searchTerm, "Info");
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showModernNotification("Error searching current issues: " + e.getMessage(), "Error");
+        if (searchTerm.equals("🔍 Search current issues...") || searchTerm.trim().isEmpty()) {
+            // Show all current issues
+            loadCurrentIssues(currentIssuesTableModel);
+            return;
         }
+        
+        // Filter current issues based on search term
+        showResults("current", currentIssuesTableModel,
+                  () -> filterIssues(issueDAO.getCurrentIssues(), searchTerm),
+                  "Error searching current issues: ",
+                  found -> showModernNotification("Found " + found + " current issues matching: " + searchTerm, "Info"));
     }
     
     private void searchOverdueBooks(String searchTerm) {
-        try {
-            if (searchTerm.equals("🔍 Search overdue books...") || searchTerm.trim().isEmpty()) {
-                // Show all overdue books
-                switchPanel("overdue");
-                return;
-            }
-            
-            // Filter overdue books based on search term
-            List<Issue> allOverdue = issueDAO.getOverdueIssues();
-            List<Issue> filteredOverdue = new ArrayList<>();
-            
-            for (Issue issue : allOverdue) {
-                if (issue.getBookTitle().toLowerCase().contains(searchTerm.toLowerCase()) ||
-                    issue.getMemberName().toLowerCase().contains(searchTerm.toLowerCase()) ||
-                    String.valueOf(issue.getId()).contains(searchTerm)) {
-                    filteredOverdue.add(issue);
-                }
-            }
-            
-            // Update the overdue books table with filtered results
-            updateOverdueBooksTable(filteredOverdue);
-            showModernNotification("Found " + filteredOverdue.size() + " overdue books matching: " + searchTerm, "Info");
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showModernNotification("Error searching overdue books: " + e.getMessage(), "Error");
-        }
-    }
-    
-    private void updateCurrentIssuesTable(List<Issue> issues) {
-        // Find the current issues table and update it
-        // This method updates the table model with filtered data
-        try {
-            DefaultTableModel model = new DefaultTableModel(
-                new String[]{"Issue ID", "Book Title", "Member Name", "Issue Date", "Due Date", "Days", "Actions"}, 0) {
-                @Override
-                public boolean isCellEditable(int row, int column) {
-                    return column == 6;
-                }
-            };
-            
-            for (Issue issue : issues) {
-                long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(
-                    issue.getIssueDate(),
-                    java.time.LocalDate.now()
-                );
-                Object[] row = {
-                    issue.getId(),
-                    issue.getBookTitle(),
-                    issue.getMemberName(),
-                    issue.getIssueDate(),
-                    issue.getDueDate(),
-                    daysBetween + " days",
-                    "Return"
-                };
-                model.addRow(row);
-            }
-            
-            // This would need access to the current table - simplified for now
-            switchPanel("current"); // Refresh the panel
-            
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (searchTerm.equals("🔍 Search overdue books...") || searchTerm.trim().isEmpty()) {
+            // Show all overdue books
+            loadOverdueBooks(overdueTableModel);
+            return;
         }
+        
+        // Filter overdue books based on search term
+        showResults("overdue", overdueTableModel,
+                  () -> filterIssues(issueDAO.getOverdueIssues(), searchTerm),
+                  "Error searching overdue books: ",
+                  found -> showModernNotification("Found " + found + " overdue books matching: " + searchTerm, "Info"));
     }
     
-    private void updateOverdueBooksTable(List<Issue> issues) {
-        // Similar implementation for overdue books
-        try {
-            DefaultTableModel model = new DefaultTableModel(
-                new String[]{"Issue ID", "Book Title", "Member Name", "Issue Date", "Due Date", "Days Overdue", "Actions"}, 0) {
-                @Override
-                public boolean isCellEditable(int row, int column) {
-                    return column == 6;
-                }
-            };
-            
-            for (Issue issue : issues) {
-                long daysOverdue = java.time.temporal.ChronoUnit.DAYS.between(
-                    issue.getDueDate(),
-                    java.time.LocalDate.now()
-                );
-                Object[] row = {
-                    issue.getId(),
-                    issue.getBookTitle(),
-                    issue.getMemberName(),
-                    issue.getIssueDate(),
-                    issue.getDueDate(),
-                    daysOverdue + " days",
-                    "Action"
-                };
-                model.addRow(row);
+    private List<Issue> filterIssues(List<Issue> issues, String searchTerm) {
+        String searchLower = searchTerm.toLowerCase();
+        List<Issue> filtered = new ArrayList<>();
+        for (Issue issue : issues) {
+            if (issue.getBookTitle().toLowerCase().contains(searchLower) ||
+                issue.getMemberName().toLowerCase().contains(searchLower) ||
+                String.valueOf(issue.getId()).contains(searchTerm)) {
+                filtered.add(issue);
             }
-            
-            // This would need access to the current table - simplified for now
-            switchPanel("overdue"); // Refresh the panel
-            
-        } catch (Exception e) {
-            e.printStackTrace();
         }
+        return filtered;
     }
     
     private void sendOverdueReminders() {
@@ -2337,144 +2353,144 @@ public class Dashboard extends JFrame {
     }
     
     private void loadAllData() {
-        // Refresh all panels
-        repaint();
+        // Every retained panel re-fetches: the visible one now, the others when next shown
+        markDirty(panels.keySet().toArray(new String[0]));
     }
     
     // Book management helper methods
     private void refreshBooksTable() {
-        // Find and refresh the books table
+        // The BookChanged event from the DAO marks the affected panels dirty
         switchPanel("books");
     }
     
     private void showEditBookDialog(int bookId) {
-        try {
-            // Get book details from database
-            Book book = bookDAO.getBookById(bookId);
+        // Get book details from database
+        loader.load("editBook", () -> bookDAO.getBookById(bookId), book -> {
             if (book == null) {
                 showModernNotification("Book not found!", "Error");
                 return;
             }
-            
-            JDialog dialog = new JDialog(this, "Edit Book", true);
-            dialog.setSize(500, 400);
-            dialog.setLocationRelativeTo(this);
-            
-            // Main panel with padding
-            JPanel mainPanel = new JPanel(new BorderLayout());
-            mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-            mainPanel.setBackground(WHITE);
-            
-            // Title
-            JLabel titleLabel = new JLabel("✏️ Edit Book");
-            titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
-            titleLabel.setForeground(PRIMARY_COLOR);
-            titleLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
-            
-            // Form panel
-            JPanel formPanel = new JPanel(new GridBagLayout());
-            formPanel.setBackground(WHITE);
-            GridBagConstraints gbc = new GridBagConstraints();
-            gbc.insets = new Insets(5, 5, 5, 5);
-            gbc.anchor = GridBagConstraints.WEST;
-            
-            // Title field
-            gbc.gridx = 0; gbc.gridy = 0;
-            formPanel.add(new JLabel("Title:"), gbc);
-            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
-            JTextField titleField = new JTextField(book.getTitle(), 20);
-            titleField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            formPanel.add(titleField, gbc);
-            
-            // Author field
-            gbc.gridx = 0; gbc.gridy = 1; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
-            formPanel.add(new JLabel("Author:"), gbc);
-            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
-            JTextField authorField = new JTextField(book.getAuthor(), 20);
-            authorField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            formPanel.add(authorField, gbc);
-            
-            // Year field
-            gbc.gridx = 0; gbc.gridy = 2; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
-            formPanel.add(new JLabel("Year:"), gbc);
-            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
-            JTextField yearField = new JTextField(String.valueOf(book.getYear()), 20);
-            yearField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            formPanel.add(yearField, gbc);
-            
-            // Quantity field
-            gbc.gridx = 0; gbc.gridy = 3; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
-            formPanel.add(new JLabel("Quantity:"), gbc);
-            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
-            JTextField quantityField = new JTextField(String.valueOf(book.getQuantity()), 20);
-            quantityField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            formPanel.add(quantityField, gbc);
-            
-            // Buttons panel
-            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-            buttonPanel.setBackground(WHITE);
-            
-            JButton saveButton = createModernButton("💾 Update Book", SUCCESS_COLOR);
-            JButton cancelButton = createModernButton("❌ Cancel", DANGER_COLOR);
-            
-            saveButton.addActionListener(e -> {
-                try {
-                    String title = titleField.getText().trim();
-                    String author = authorField.getText().trim();
-                    String yearStr = yearField.getText().trim();
-                    String quantityStr = quantityField.getText().trim();
-                    
-                    if (title.isEmpty() || author.isEmpty() || yearStr.isEmpty() || quantityStr.isEmpty()) {
-                        showModernNotification("Please fill all fields!", "Error");
-                        return;
-                    }
-                    
-                    int year = Integer.parseInt(yearStr);
-                    int quantity = Integer.parseInt(quantityStr);
-                    
-                    // Update book object
-                    book.setTitle(title);
-                    book.setAuthor(author);
-                    book.setYear(year);
-                    book.setQuantity(quantity);
-                    
+            openEditBookDialog(book);
+        }, e -> showModernNotification("Error loading book details: " + e.getMessage(), "Error"));
+    }
+    
+    private void openEditBookDialog(Book book) {
+        JDialog dialog = new JDialog(this, "Edit Book", true);
+        dialog.setSize(500, 400);
+        dialog.setLocationRelativeTo(this);
+        
+        // Main panel with padding
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        mainPanel.setBackground(WHITE);
+        
+        // Title
+        JLabel titleLabel = new JLabel("✏️ Edit Book");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        titleLabel.setForeground(PRIMARY_COLOR);
+        titleLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
+        
+        // Form panel
+        JPanel formPanel = new JPanel(new GridBagLayout());
+        formPanel.setBackground(WHITE);
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.anchor = GridBagConstraints.WEST;
+        
+        // Title field
+        gbc.gridx = 0; gbc.gridy = 0;
+        formPanel.add(new JLabel("Title:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        JTextField titleField = new JTextField(book.getTitle(), 20);
+        titleField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        formPanel.add(titleField, gbc);
+        
+        // Author field
+        gbc.gridx = 0; gbc.gridy = 1; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        formPanel.add(new JLabel("Author:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        JTextField authorField = new JTextField(book.getAuthor(), 20);
+        authorField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        formPanel.add(authorField, gbc);
+        
+        // Year field
+        gbc.gridx = 0; gbc.gridy = 2; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        formPanel.add(new JLabel("Year:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        JTextField yearField = new JTextField(String.valueOf(book.getYear()), 20);
+        yearField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        formPanel.add(yearField, gbc);
+        
+        // Quantity field
+        gbc.gridx = 0; gbc.gridy = 3; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        formPanel.add(new JLabel("Quantity:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        JTextField quantityField = new JTextField(String.valueOf(book.getQuantity()), 20);
+        quantityField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        formPanel.add(quantityField, gbc);
+        
+        // Buttons panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBackground(WHITE);
+        
+        JButton saveButton = createModernButton("💾 Update Book", SUCCESS_COLOR);
+        JButton cancelButton = createModernButton("❌ Cancel", DANGER_COLOR);
+        
+        saveButton.addActionListener(e -> {
+            try {
+                String title = titleField.getText().trim();
+                String author = authorField.getText().trim();
+                String yearStr = yearField.getText().trim();
+                String quantityStr = quantityField.getText().trim();
+                
+                if (title.isEmpty() || author.isEmpty() || yearStr.isEmpty() || quantityStr.isEmpty()) {
+                    showModernNotification("Please fill all fields!", "Error");
+                    return;
+                }
+                
+                int year = Integer.parseInt(yearStr);
+                int quantity = Integer.parseInt(quantityStr);
+                
+                // Update book object
+                book.setTitle(title);
+                book.setAuthor(author);
+                book.setYear(year);
+                book.setQuantity(quantity);
+                
+                loader.submit(() -> {
                     bookDAO.updateBook(book);
-                    
+                    return book;
+                }, updated -> {
                     // Refresh the books table
                     refreshBooksTable();
                     
                     dialog.dispose();
                     showModernNotification("Book updated successfully!", "Success");
-                    
-                } catch (NumberFormatException ex) {
-                    showModernNotification("Year and Quantity must be numbers!", "Error");
-                } catch (SQLException ex) {
-                    showModernNotification("Error updating book: " + ex.getMessage(), "Error");
-                }
-            });
-            
-            cancelButton.addActionListener(e -> dialog.dispose());
-            
-            buttonPanel.add(saveButton);
-            buttonPanel.add(cancelButton);
-            
-            // Layout
-            mainPanel.add(titleLabel, BorderLayout.NORTH);
-            mainPanel.add(formPanel, BorderLayout.CENTER);
-            mainPanel.add(buttonPanel, BorderLayout.SOUTH);
-            
-            dialog.add(mainPanel);
-            dialog.setVisible(true);
-            
-        } catch (SQLException e) {
-            showModernNotification("Error loading book details: " + e.getMessage(), "Error");
-        }
+                }, ex -> showModernNotification("Error updating book: " + ex.getMessage(), "Error"));
+                
+            } catch (NumberFormatException ex) {
+                showModernNotification("Year and Quantity must be numbers!", "Error");
+            }
+        });
+        
+        cancelButton.addActionListener(e -> dialog.dispose());
+        
+        buttonPanel.add(saveButton);
+        buttonPanel.add(cancelButton);
+        
+        // Layout
+        mainPanel.add(titleLabel, BorderLayout.NORTH);
+        mainPanel.add(formPanel, BorderLayout.CENTER);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+        
+        dialog.add(mainPanel);
+        dialog.setVisible(true);
+
     }
     
     private void deleteBook(int bookId, String bookTitle) {
-        try {
+        loader.load("deleteCheck", () -> bookDAO.getBookById(bookId), book -> {
             // Validation 1: Check if book has available stock > 0
-            Book book = bookDAO.getBookById(bookId);
             if (book == null) {
                 showModernNotification("Book not found!", "Error");
                 return;
@@ -2485,13 +2501,11 @@ public class Dashboard extends JFrame {
                 return;
             }
             
-            // Validation 2: Check if book is currently issued
-            List<Issue> currentIssues = issueDAO.getCurrentIssues();
-            for (Issue issue : currentIssues) {
-                if (issue.getBookId() == bookId) {
-                    showModernNotification("This book is currently issued to a member. Wait until all copies are returned before deleting.", "Warning");
-                    return;
-                }
+            // Validation 2: Check if book is currently issued; the maintained counter goes
+            // below quantity by the number of copies on loan
+            if (book.getAvailableCopies() < book.getQuantity()) {
+                showModernNotification("This book is currently issued to a member. Wait until all copies are returned before deleting.", "Warning");
+                return;
             }
             
             // All validations passed, show confirmation dialog
@@ -2504,182 +2518,213 @@ public class Dashboard extends JFrame {
             );
             
             if (option == JOptionPane.YES_OPTION) {
-                bookDAO.deleteBook(bookId);
-                refreshBooksTable();
-                showModernNotification("Book deleted successfully!", "Success");
+                loader.submit(() -> {
+                    bookDAO.deleteBook(bookId);
+                    return bookId;
+                }, deleted -> {
+                    refreshBooksTable();
+                    showModernNotification("Book deleted successfully!", "Success");
+                }, e -> showModernNotification("Error deleting book: " + e.getMessage(), "Error"));
             }
-        } catch (SQLException e) {
-            showModernNotification("Error validating book deletion: " + e.getMessage(), "Error");
-        }
+        }, e -> showModernNotification("Error validating book deletion: " + e.getMessage(), "Error"));
     }
     
     // Member management helper methods
     private void refreshMembersTable() {
-        // Find and refresh the members table
+        // The MemberChanged event from the DAO marks the affected panels dirty
         switchPanel("members");
     }
     
     private void showEditMemberDialog(int memberId) {
-        try {
-            // Get member details from database
-            Member member = memberDAO.getMemberById(memberId);
+        // Get member details from database
+        loader.load("editMember", () -> memberDAO.getMemberById(memberId), member -> {
             if (member == null) {
                 showModernNotification("Member not found!", "Error");
                 return;
             }
+            openEditMemberDialog(member);
+        }, e -> showModernNotification("Error loading member details: " + e.getMessage(), "Error"));
+    }
+    
+    private void openEditMemberDialog(Member member) {
+        JDialog dialog = new JDialog(this, "Edit Member", true);
+        dialog.setSize(600, 500);
+        dialog.setLocationRelativeTo(this);
+        
+        // Main panel with padding
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        mainPanel.setBackground(WHITE);
+        
+        // Title
+        JLabel titleLabel = new JLabel("✏️ Edit Member");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        titleLabel.setForeground(SUCCESS_COLOR);
+        titleLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
+        
+        // Form panel
+        JPanel formPanel = new JPanel(new GridBagLayout());
+        formPanel.setBackground(WHITE);
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.anchor = GridBagConstraints.WEST;
+        
+        // Name field
+        gbc.gridx = 0; gbc.gridy = 0;
+        formPanel.add(new JLabel("Name:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        JTextField nameField = new JTextField(member.getName(), 20);
+        nameField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        formPanel.add(nameField, gbc);
+        
+        // Email field
+        gbc.gridx = 0; gbc.gridy = 1; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        formPanel.add(new JLabel("Email:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        JTextField emailField = new JTextField(member.getEmail(), 20);
+        emailField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        formPanel.add(emailField, gbc);
+        
+        // Phone field
+        gbc.gridx = 0; gbc.gridy = 2; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        formPanel.add(new JLabel("Phone:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        JTextField phoneField = new JTextField(member.getPhone(), 20);
+        phoneField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        formPanel.add(phoneField, gbc);
+        
+        // Address field
+        gbc.gridx = 0; gbc.gridy = 3; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        formPanel.add(new JLabel("Address:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        JTextField addressField = new JTextField(member.getAddress(), 20);
+        addressField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        formPanel.add(addressField, gbc);
+        
+        // Member Type field
+        gbc.gridx = 0; gbc.gridy = 4; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        formPanel.add(new JLabel("Member Type:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        JComboBox<String> typeCombo = new JComboBox<>(new String[]{"STUDENT", "TEACHER", "STAFF"});
+        typeCombo.setSelectedItem(member.getMemberType());
+        typeCombo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        formPanel.add(typeCombo, gbc);
+        
+        // Status field
+        gbc.gridx = 0; gbc.gridy = 5; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
+        formPanel.add(new JLabel("Status:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
+        JComboBox<String> statusCombo = new JComboBox<>(new String[]{"ACTIVE", "SUSPENDED", "INACTIVE"});
+        statusCombo.setSelectedItem(member.getStatus());
+        statusCombo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        formPanel.add(statusCombo, gbc);
+        
+        // Buttons panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBackground(WHITE);
+        
+        JButton saveButton = createModernButton("💾 Update Member", SUCCESS_COLOR);
+        JButton cancelButton = createModernButton("❌ Cancel", DANGER_COLOR);
+        
+        saveButton.addActionListener(e -> {
+            String name = nameField.getText().trim();
+            String email = emailField.getText().trim();
+            String phone = phoneField.getText().trim();
+            String address = addressField.getText().trim();
+            String memberType = (String) typeCombo.getSelectedItem();
+            String status = (String) statusCombo.getSelectedItem();
+            
+            if (name.isEmpty() || email.isEmpty() || phone.isEmpty() || address.isEmpty()) {
+                showModernNotification("Please fill all fields!", "Error");
+                return;
+            }
             
-            JDialog dialog = new JDialog(this, "Edit Member", true);
-            dialog.setSize(600, 500);
-            dialog.setLocationRelativeTo(this);
-            
-            // Main panel with padding
-            JPanel mainPanel = new JPanel(new BorderLayout());
-            mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-            mainPanel.setBackground(WHITE);
-            
-            // Title
-            JLabel titleLabel = new JLabel("✏️ Edit Member");
-            titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
-            titleLabel.setForeground(SUCCESS_COLOR);
-            titleLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
-            
-            // Form panel
-            JPanel formPanel = new JPanel(new GridBagLayout());
-            formPanel.setBackground(WHITE);
-            GridBagConstraints gbc = new GridBagConstraints();
-            gbc.insets = new Insets(5, 5, 5, 5);
-            gbc.anchor = GridBagConstraints.WEST;
-            
-            // Name field
-            gbc.gridx = 0; gbc.gridy = 0;
-            formPanel.add(new JLabel("Name:"), gbc);
-            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
-            JTextField nameField = new JTextField(member.getName(), 20);
-            nameField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            formPanel.add(nameField, gbc);
-            
-            // Email field
-            gbc.gridx = 0; gbc.gridy = 1; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
-            formPanel.add(new JLabel("Email:"), gbc);
-            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
-            JTextField emailField = new JTextField(member.getEmail(), 20);
-            emailField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            formPanel.add(emailField, gbc);
-            
-            // Phone field
-            gbc.gridx = 0; gbc.gridy = 2; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
-            formPanel.add(new JLabel("Phone:"), gbc);
-            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
-            JTextField phoneField = new JTextField(member.getPhone(), 20);
-            phoneField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            formPanel.add(phoneField, gbc);
-            
-            // Address field
-            gbc.gridx = 0; gbc.gridy = 3; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
-            formPanel.add(new JLabel("Address:"), gbc);
-            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
-            JTextField addressField = new JTextField(member.getAddress(), 20);
-            addressField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            formPanel.add(addressField, gbc);
-            
-            // Member Type field
-            gbc.gridx = 0; gbc.gridy = 4; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
-            formPanel.add(new JLabel("Member Type:"), gbc);
-            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
-            JComboBox<String> typeCombo = new JComboBox<>(new String[]{"STUDENT", "TEACHER", "STAFF"});
-            typeCombo.setSelectedItem(member.getMemberType());
-            typeCombo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            formPanel.add(typeCombo, gbc);
-            
-            // Status field
-            gbc.gridx = 0; gbc.gridy = 5; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
-            formPanel.add(new JLabel("Status:"), gbc);
-            gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL; gbc.weightx = 1.0;
-            JComboBox<String> statusCombo = new JComboBox<>(new String[]{"ACTIVE", "SUSPENDED", "INACTIVE"});
-            statusCombo.setSelectedItem(member.getStatus());
-            statusCombo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            formPanel.add(statusCombo, gbc);
-            
-            // Buttons panel
-            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-            buttonPanel.setBackground(WHITE);
-            
-            JButton saveButton = createModernButton("💾 Update Member", SUCCESS_COLOR);
-            JButton cancelButton = createModernButton("❌ Cancel", DANGER_COLOR);
-            
-            saveButton.addActionListener(e -> {
-                try {
-                    String name = nameField.getText().trim();
-                    String email = emailField.getText().trim();
-                    String phone = phoneField.getText().trim();
-                    String address = addressField.getText().trim();
-                    String memberType = (String) typeCombo.getSelectedItem();
-                    String status = (String) statusCombo.getSelectedItem();
-                    
-                    if (name.isEmpty() || email.isEmpty() || phone.isEmpty() || address.isEmpty()) {
-                        showModernNotification("Please fill all fields!", "Error");
-                        return;
-                    }
-                    
-                    // Update member object
-                    member.setName(name);
-                    member.setEmail(email);
-                    member.setPhone(phone);
-                    member.setAddress(address);
-                    member.setMemberType(memberType);
-                    member.setStatus(status);
-                    
-                    memberDAO.updateMember(member);
-                    
-                    // Refresh the members table
-                    refreshMembersTable();
-                    
-                    dialog.dispose();
-                    showModernNotification("Member updated successfully!", "Success");
-                    
-                } catch (SQLException ex) {
-                    showModernNotification("Error updating member: " + ex.getMessage(), "Error");
-                }
-            });
-            
-            cancelButton.addActionListener(e -> dialog.dispose());
-            
-            buttonPanel.add(saveButton);
-            buttonPanel.add(cancelButton);
+            // Update member object
+            member.setName(name);
+            member.setEmail(email);
+            member.setPhone(phone);
+            member.setAddress(address);
+            member.setMemberType(memberType);
+            member.setStatus(status);
             
-            // Layout
-            mainPanel.add(titleLabel, BorderLayout.NORTH);
-            mainPanel.add(formPanel, BorderLayout.CENTER);
-            mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+            loader.submit(() -> {
+                memberDAO.updateMember(member);
+                return member;
+            }, updated -> {
+                // Refresh the members table
+                refreshMembersTable();
+                
+                dialog.dispose();
+                showModernNotification("Member updated successfully!", "Success");
+            }, ex -> showModernNotification("Error updating member: " + ex.getMessage(), "Error"));
+        });
+        
+        cancelButton.addActionListener(e -> dialog.dispose());
+        
+        buttonPanel.add(saveButton);
+        buttonPanel.add(cancelButton);
+        
+        // Layout
+        mainPanel.add(titleLabel, BorderLayout.NORTH);
+        mainPanel.add(formPanel, BorderLayout.CENTER);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+        
+        dialog.add(mainPanel);
+        dialog.setVisible(true);
+
+    }
+    
+    private void recordFinePayment(int memberId, String memberName) {
+        loader.load("fineBalance", () -> fineDAO.getBalance(memberId), balance -> {
+            if (balance <= 0) {
+                showModernNotification(memberName + " has no unpaid fines.", "Info");
+                return;
+            }
             
-            dialog.add(mainPanel);
-            dialog.setVisible(true);
+            String input = (String) JOptionPane.showInputDialog(
+                this,
+                memberName + " owes Rs " + String.format("%.2f", balance) + ".\nAmount received (Rs):",
+                "Record Fine Payment",
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                null,
+                String.format("%.2f", balance)
+            );
+            if (input == null) {
+                return; // cancelled
+            }
             
-        } catch (SQLException e) {
-            showModernNotification("Error loading member details: " + e.getMessage(), "Error");
-        }
+            double amount;
+            try {
+                amount = Double.parseDouble(input.trim());
+            } catch (NumberFormatException e) {
+                showModernNotification("Please enter a valid amount!", "Error");
+                return;
+            }
+            loader.submit(() -> {
+                fineDAO.recordPayment(memberId, amount, "Paid at desk");
+                return fineDAO.getBalance(memberId);
+            }, remaining -> showModernNotification("Payment of Rs " + String.format("%.2f", amount) +
+                " recorded. Remaining balance: Rs " + String.format("%.2f", remaining), "Success"),
+                e -> reportPaymentError(e));
+        }, e -> reportPaymentError(e));
+    }
+    
+    private void reportPaymentError(SQLException e) {
+        e.printStackTrace();
+        showModernNotification("Error recording payment: " + e.getMessage(), "Error");
     }
     
     private void deleteMember(int memberId, String memberName) {
-        try {
+        loader.load("deleteCheck", () -> issueDAO.getMemberLoanSummary(memberId), loans -> {
             // Validation 1: Check if member has unreturned books
-            List<Issue> currentIssues = issueDAO.getCurrentIssues();
-            for (Issue issue : currentIssues) {
-                if (issue.getMemberId() == memberId) {
-                    showModernNotification("This member still has unreturned books. Please process all returns before deleting.", "Warning");
-                    return;
-                }
+            if (loans.getActiveLoans() > 0) {
+                showModernNotification("This member still has unreturned books. Please process all returns before deleting.", "Warning");
+                return;
             }
             
             // Validation 2: Check if member has unpaid fines
-            List<Issue> allIssues = issueDAO.getAllIssues();
-            double totalFines = 0.0;
-            for (Issue issue : allIssues) {
-                if (issue.getMemberId() == memberId && issue.getFineAmount() > 0) {
-                    totalFines += issue.getFineAmount();
-                }
-            }
-            
+            double totalFines = loans.getOutstandingFines();
             if (totalFines > 0) {
                 showModernNotification("This member has unpaid fines totaling Rs " + String.format("%.2f", totalFines) + 
                     ". Please clear fines before deleting.", "Warning");
@@ -2696,12 +2741,14 @@ public class Dashboard extends JFrame {
             );
             
             if (option == JOptionPane.YES_OPTION) {
-                memberDAO.deleteMember(memberId);
-                refreshMembersTable();
-                showModernNotification("Member deleted successfully!", "Success");
+                loader.submit(() -> {
+                    memberDAO.deleteMember(memberId);
+                    return memberId;
+                }, deleted -> {
+                    refreshMembersTable();
+                    showModernNotification("Member deleted successfully!", "Success");
+                }, e -> showModernNotification("Error deleting member: " + e.getMessage(), "Error"));
             }
-        } catch (SQLException e) {
-            showModernNotification("Error validating member deletion: " + e.getMessage(), "Error");
-        }
+        }, e -> showModernNotification("Error validating member deletion: " + e.getMessage(), "Error"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+public class DashboardStats {
+    private final int totalBooks;
+    private final int totalMembers;
+    private final int currentIssues;
+    private final int overdueIssues;
+
+    public DashboardStats(int totalBooks, int totalMembers, int currentIssues, int overdueIssues) {
+        this.totalBooks = totalBooks;
+        this.totalMembers = totalMembers;
+        this.currentIssues = currentIssues;
+        this.overdueIssues = overdueIssues;
+    }
+
+    // getters
+    public int getTotalBooks() { return totalBooks; }
+    public int getTotalMembers() { return totalMembers; }
+    public int getCurrentIssues() { return currentIssues; }
+    public int getOverdueIssues() { return overdueIssues; }
+}
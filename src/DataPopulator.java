@@ -1,5 +1,7 @@
 import java.sql.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 public class DataPopulator {
@@ -38,18 +40,13 @@ public class DataPopulator {
                 {"Midnight Children", "Salman Rushdie", "1981"}
             };
             
-            String bookSQL = "INSERT INTO books (title, author, year, quantity) VALUES (?, ?, ?, ?)";
-            PreparedStatement bookStmt = conn.prepareStatement(bookSQL);
-            
+            List<Book> books = new ArrayList<>();
             for (int i = 0; i < bookData.length; i++) {
                 int quantity = 3 + (i % 4); // 3-6 copies per book
-                bookStmt.setString(1, bookData[i][0]);
-                bookStmt.setString(2, bookData[i][1]);
-                bookStmt.setInt(3, Integer.parseInt(bookData[i][2]));
-                bookStmt.setInt(4, quantity);
-                bookStmt.executeUpdate();
+                books.add(new Book(bookData[i][0], bookData[i][1], Integer.parseInt(bookData[i][2]), quantity));
             }
-            bookStmt.close();
+            BatchResult bookResult = new BookDAO().addBooks(books);
+            int[] bookIds = bookResult.getGeneratedKeys();
             
             // Add 20 South Asian Members with authentic names
             String[] firstNames = {
@@ -64,9 +61,7 @@ public class DataPopulator {
             
             String[] memberTypes = {"STUDENT", "FACULTY", "PUBLIC"};
             
-            String memberSQL = "INSERT INTO members (name, email, phone, address, member_type) VALUES (?, ?, ?, ?, ?)";
-            PreparedStatement memberStmt = conn.prepareStatement(memberSQL);
-            
+            List<Member> members = new ArrayList<>();
             for (int i = 0; i < 20; i++) {
                 String name = firstNames[i] + " " + lastNames[i];
                 // Create email in requested format: sajidhafajim@gmail.com
@@ -74,15 +69,10 @@ public class DataPopulator {
                 String phone = "077" + String.format("%07d", 1000000 + i);
                 String address = (i + 1) + "/A, Main Street, Colombo " + String.format("%02d", (i % 15) + 1);
                 String memberType = memberTypes[i % memberTypes.length];
-                
-                memberStmt.setString(1, name);
-                memberStmt.setString(2, email);
-                memberStmt.setString(3, phone);
-                memberStmt.setString(4, address);
-                memberStmt.setString(5, memberType);
-                memberStmt.executeUpdate();
+                members.add(new Member(name, email, phone, address, memberType));
             }
-            memberStmt.close();
+            BatchResult memberResult = new MemberDAO().addMembers(members);
+            int[] memberIds = memberResult.getGeneratedKeys();
             
             // Add Current Issues (12 books currently issued)
             LocalDate currentDate = LocalDate.now();
@@ -92,18 +82,19 @@ public class DataPopulator {
             PreparedStatement currentIssueStmt = conn.prepareStatement(currentIssueSQL);
             
             for (int i = 1; i <= 12; i++) {
-                int bookId = i;
-                int memberId = i;
+                int bookId = bookIds[i - 1];
+                int memberId = memberIds[i - 1];
                 LocalDate issueDate = currentDate.minusDays(random.nextInt(10) + 1); // Issued 1-10 days ago
                 LocalDate dueDate = issueDate.plusDays(14); // 14 days loan period
                 
                 currentIssueStmt.setInt(1, bookId);
                 currentIssueStmt.setInt(2, memberId);
-                currentIssueStmt.setString(3, issueDate.toString());
-                currentIssueStmt.setString(4, dueDate.toString());
+                currentIssueStmt.setLong(3, issueDate.toEpochDay());
+                currentIssueStmt.setLong(4, dueDate.toEpochDay());
                 currentIssueStmt.setString(5, "ISSUED");
-                currentIssueStmt.executeUpdate();
+                currentIssueStmt.addBatch();
             }
+            currentIssueStmt.executeBatch();
             currentIssueStmt.close();
             
             // Add Overdue Issues (6 books overdue with varying periods)
@@ -111,18 +102,19 @@ public class DataPopulator {
             PreparedStatement overdueIssueStmt = conn.prepareStatement(overdueIssueSQL);
             
             for (int i = 13; i <= 18; i++) {
-                int bookId = i;
-                int memberId = i;
+                int bookId = bookIds[i - 1];
+                int memberId = memberIds[i - 1];
                 LocalDate issueDate = currentDate.minusDays(random.nextInt(25) + 15); // Issued 15-40 days ago
                 LocalDate dueDate = issueDate.plusDays(14); // 14 days loan period (now overdue)
                 
                 overdueIssueStmt.setInt(1, bookId);
                 overdueIssueStmt.setInt(2, memberId);
-                overdueIssueStmt.setString(3, issueDate.toString());
-                overdueIssueStmt.setString(4, dueDate.toString());
+                overdueIssueStmt.setLong(3, issueDate.toEpochDay());
+                overdueIssueStmt.setLong(4, dueDate.toEpochDay());
                 overdueIssueStmt.setString(5, "ISSUED");
-                overdueIssueStmt.executeUpdate();
+                overdueIssueStmt.addBatch();
             }
+            overdueIssueStmt.executeBatch();
             overdueIssueStmt.close();
             
             // Add some returned books for recent activity (with varying fine amounts for late returns)
@@ -130,36 +122,34 @@ public class DataPopulator {
             PreparedStatement returnStmt = conn.prepareStatement(returnSQL);
             
             for (int i = 1; i <= 5; i++) {
-                int bookId = 19 + (i % 2); // Use books 19-20
-                int memberId = 19 + (i % 2); // Use members 19-20
+                int bookId = bookIds[18 + (i % 2)]; // Use books 19-20
+                int memberId = memberIds[18 + (i % 2)]; // Use members 19-20
+                String memberType = members.get(18 + (i % 2)).getMemberType();
                 LocalDate issueDate = currentDate.minusDays(random.nextInt(10) + 20); // Issued 20-30 days ago
                 LocalDate dueDate = issueDate.plusDays(14);
                 LocalDate returnDate = currentDate.minusDays(random.nextInt(5)); // Returned 0-5 days ago
                 
                 // Calculate fine if returned late
-                double fineAmount = 0.0;
-                if (returnDate.isAfter(dueDate)) {
-                    long daysLate = java.time.temporal.ChronoUnit.DAYS.between(dueDate, returnDate);
-                    fineAmount = daysLate * 10.0; // Rs 10 per day fine
-                }
+                double fineAmount = FinePolicy.current().fineFor(memberType, dueDate, returnDate);
                 
                 returnStmt.setInt(1, bookId);
                 returnStmt.setInt(2, memberId);
-                returnStmt.setString(3, issueDate.toString());
-                returnStmt.setString(4, dueDate.toString());
-                returnStmt.setString(5, returnDate.toString());
+                returnStmt.setLong(3, issueDate.toEpochDay());
+                returnStmt.setLong(4, dueDate.toEpochDay());
+                returnStmt.setLong(5, returnDate.toEpochDay());
                 returnStmt.setString(6, "RETURNED");
                 returnStmt.setDouble(7, fineAmount);
-                returnStmt.executeUpdate();
+                returnStmt.addBatch();
             }
+            returnStmt.executeBatch();
             returnStmt.close();
             
             st.close();
             conn.close();
             
             System.out.println("✅ Database populated successfully with South Asian data!");
-            System.out.println("📚 Added 20 diverse books");
-            System.out.println("👥 Added 20 South Asian members (format: sajidhafajim@gmail.com)");
+            System.out.println("📚 Added " + bookResult.getInsertedCount() + " diverse books");
+            System.out.println("👥 Added " + memberResult.getInsertedCount() + " South Asian members (format: sajidhafajim@gmail.com)");
             System.out.println("📋 Added 12 current issues");
             System.out.println("⚠️ Added 6 overdue books");
             System.out.println("🔄 Added 5 returned books with fine calculations");
@@ -1,80 +1,77 @@
 import java.sql.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 public class Database {
     private static final String DB_URL = "jdbc:sqlite:library.db";
+    private static final PragmaProfile profile = PragmaProfile.fromSystemProperties();
+    private static final ConnectionPool pool = new ConnectionPool(DB_URL, PoolConfig.fromSystemProperties(), profile::apply);
+    private static final WriteQueue writer = new WriteQueue(DB_URL, profile::apply,
+            Integer.getInteger("library.writer.batchSize", 64),
+            Long.getLong("library.writer.flushMs", 5));
     
     static {
-        // create DB file and tables if not exists
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            createTables(conn);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            writer.shutdown();
+            pool.close();
+        }, "db-shutdown"));
+        
+        // create DB file and bring the schema up to date
+        try (Connection conn = getConnection()) {
+            SchemaMigrator.migrate(conn);
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
+
+    // Borrows a pooled connection; close() hands it back to the pool
+    public static Connection getConnection() throws SQLException {
+        return pool.borrow();
+    }
     
-    private static void createTables(Connection conn) throws SQLException {
-        Statement st = conn.createStatement();
-        
-        // Books table
-        String booksTable = "CREATE TABLE IF NOT EXISTS books (" +
-                           "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                           "title TEXT NOT NULL," +
-                           "author TEXT NOT NULL," +
-                           "year INTEGER," +
-                           "quantity INTEGER DEFAULT 0" +
-                           ");";
-        st.execute(booksTable);
-        
-        // Users table (for login/signup)
-        String usersTable = "CREATE TABLE IF NOT EXISTS users (" +
-                           "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                           "username TEXT UNIQUE NOT NULL," +
-                           "password TEXT NOT NULL," +
-                           "role TEXT DEFAULT 'ADMIN'" +
-                           ");";
-        st.execute(usersTable);
-        
-        // Members table (students/teachers who borrow books)
-        String membersTable = "CREATE TABLE IF NOT EXISTS members (" +
-                             "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                             "name TEXT NOT NULL," +
-                             "email TEXT UNIQUE NOT NULL," +
-                             "phone TEXT," +
-                             "address TEXT," +
-                             "member_type TEXT DEFAULT 'STUDENT'," +
-                             "join_date DATE DEFAULT CURRENT_DATE," +
-                             "status TEXT DEFAULT 'ACTIVE'" +
-                             ");";
-        st.execute(membersTable);
-        
-        // Issues table (book borrowing records)
-        String issuesTable = "CREATE TABLE IF NOT EXISTS issues (" +
-                            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                            "book_id INTEGER NOT NULL," +
-                            "member_id INTEGER NOT NULL," +
-                            "issue_date DATE DEFAULT CURRENT_DATE," +
-                            "return_date DATE," +
-                            "due_date DATE NOT NULL," +
-                            "status TEXT DEFAULT 'ISSUED'," +
-                            "fine_amount REAL DEFAULT 0.0," +
-                            "FOREIGN KEY (book_id) REFERENCES books(id)," +
-                            "FOREIGN KEY (member_id) REFERENCES members(id)" +
-                            ");";
-        st.execute(issuesTable);
-        
-        // Insert default admin user if not exists
-        String checkAdmin = "SELECT COUNT(*) FROM users WHERE username='admin'";
-        ResultSet rs = st.executeQuery(checkAdmin);
-        if (rs.next() && rs.getInt(1) == 0) {
-            String insertAdmin = "INSERT INTO users (username, password, role) VALUES ('admin', 'admin', 'ADMIN')";
-            st.execute(insertAdmin);
+    // Runs the work on the single writer thread and waits until its group commit is durable
+    public static <T> T write(SqlWork<T> work) throws SQLException {
+        return await(writer.submit(work));
+    }
+    
+    public static <T> CompletableFuture<T> submitWrite(SqlWork<T> work) {
+        return writer.submit(work);
+    }
+    
+    static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for database write", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException(cause);
         }
-        rs.close();
-        
-        st.close();
     }
-
-    public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+    
+    // Runs on the writer thread after every successful group commit
+    public static void onCommit(Runnable listener) {
+        writer.addCommitListener(listener);
+    }
+    
+    public static WriteQueue getWriteQueue() {
+        return writer;
+    }
+    
+    public static PragmaProfile getProfile() {
+        return profile;
+    }
+    
+    // Used by DaoExecutor to propagate future cancellation down to the running JDBC Statement
+    public static int cancelRunningStatements(Thread worker) {
+        return pool.cancelStatements(worker);
+    }
+    
+    public static PoolStats getPoolStats() {
+        return pool.getStats();
     }
 }
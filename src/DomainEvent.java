@@ -0,0 +1,109 @@
+import java.util.Objects;
+
+// Change notifications published after a write has committed. Events carry ids only;
+// subscribers re-read whatever they need, so a late or coalesced event is never stale.
+public abstract class DomainEvent {
+
+    // A book was added, edited or deleted (re-read it; null means it is gone)
+    public static final class BookChanged extends DomainEvent {
+        private final int bookId;
+
+        public BookChanged(int bookId) {
+            this.bookId = bookId;
+        }
+
+        public int getBookId() { return bookId; }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BookChanged && ((BookChanged) o).bookId == bookId;
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash("book", bookId); }
+
+        @Override
+        public String toString() { return "BookChanged[" + bookId + "]"; }
+    }
+
+    // A member was added, edited or deleted
+    public static final class MemberChanged extends DomainEvent {
+        private final int memberId;
+
+        public MemberChanged(int memberId) {
+            this.memberId = memberId;
+        }
+
+        public int getMemberId() { return memberId; }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MemberChanged && ((MemberChanged) o).memberId == memberId;
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash("member", memberId); }
+
+        @Override
+        public String toString() { return "MemberChanged[" + memberId + "]"; }
+    }
+
+    // Something happened to one loan. Subscribers pick the kind by class (the bus dispatches
+    // on the exact event class); two events are the same if they are the same kind of
+    // change to the same loan, so repeats in a batch coalesce.
+    public abstract static class LoanEvent extends DomainEvent {
+        private final int issueId;
+        private final int bookId;
+        private final int memberId;
+
+        LoanEvent(int issueId, int bookId, int memberId) {
+            this.issueId = issueId;
+            this.bookId = bookId;
+            this.memberId = memberId;
+        }
+
+        public int getIssueId() { return issueId; }
+        public int getBookId() { return bookId; }
+        public int getMemberId() { return memberId; }
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && o.getClass() == getClass() && ((LoanEvent) o).issueId == issueId;
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash(getClass().getSimpleName(), issueId); }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "[" + issueId + ", book " + bookId + ", member " + memberId + "]";
+        }
+    }
+
+    public static final class IssueCreated extends LoanEvent {
+        public IssueCreated(int issueId, int bookId, int memberId) { super(issueId, bookId, memberId); }
+    }
+
+    public static final class IssueReturned extends LoanEvent {
+        public IssueReturned(int issueId, int bookId, int memberId) { super(issueId, bookId, memberId); }
+    }
+
+    public static final class IssueRenewed extends LoanEvent {
+        public IssueRenewed(int issueId, int bookId, int memberId) { super(issueId, bookId, memberId); }
+    }
+
+    // The nightly overdue job marked the loan overdue or changed its stored fine
+    public static final class OverdueChanged extends LoanEvent {
+        public OverdueChanged(int issueId, int bookId, int memberId) { super(issueId, bookId, memberId); }
+    }
+
+    // Events were dropped because the queue overflowed: subscribers should reload everything
+    public static final class Resync extends DomainEvent {
+        public static final Resync INSTANCE = new Resync();
+
+        private Resync() {}
+
+        @Override
+        public String toString() { return "Resync"; }
+    }
+}
@@ -0,0 +1,142 @@
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// In-process bus for DomainEvents. Publishers never run subscriber code: events go into a
+// bounded queue and one dispatcher thread delivers them in coalesced batches, with
+// duplicates removed, so a burst of writes costs each subscriber one call per event type.
+// A full queue first slows publishers down, and if it stays full the backlog is replaced
+// by a single Resync event. Threads that must never wait, such as the db writer, use
+// tryPublish and go straight to the Resync.
+public class EventBus {
+    private static final int CAPACITY = Integer.getInteger("library.events.capacity", 10_000);
+    private static final long COALESCE_MILLIS = Long.getLong("library.events.coalesceMs", 50);
+    private static final long PUBLISH_TIMEOUT_MILLIS = Long.getLong("library.events.publishTimeoutMs", 100);
+
+    private static final BlockingQueue<DomainEvent> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private static final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    private static final AtomicBoolean overflowed = new AtomicBoolean(false);
+    private static final LongAdder publishedCount = new LongAdder();
+    private static final LongAdder droppedCount = new LongAdder();
+
+    public static final class Subscription<E extends DomainEvent> {
+        private final Class<E> type;
+        private final Consumer<List<E>> handler;
+
+        private Subscription(Class<E> type, Consumer<List<E>> handler) {
+            this.type = type;
+            this.handler = handler;
+        }
+
+        public void cancel() {
+            subscriptions.remove(this);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void deliver(List<? extends DomainEvent> batch) {
+            handler.accept((List<E>) batch);
+        }
+    }
+
+    static {
+        Thread dispatcher = new Thread(EventBus::dispatchLoop, "domain-events");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    public static void publish(DomainEvent event) {
+        publishedCount.increment();
+        try {
+            if (queue.offer(event) || queue.offer(event, PUBLISH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped();
+    }
+
+    // Never blocks: when the queue is full the event is dropped and subscribers get a Resync
+    public static void tryPublish(DomainEvent event) {
+        publishedCount.increment();
+        if (!queue.offer(event)) {
+            dropped();
+        }
+    }
+
+    private static void dropped() {
+        droppedCount.increment();
+        overflowed.set(true);
+    }
+
+    // Handler runs on the dispatcher thread with every distinct event of its type from one batch
+    public static <E extends DomainEvent> Subscription<E> subscribe(Class<E> type, Consumer<List<E>> handler) {
+        Subscription<E> subscription = new Subscription<>(type, handler);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    // Same, but the handler runs on the Swing EDT
+    public static <E extends DomainEvent> Subscription<E> subscribeOnEdt(Class<E> type, Consumer<List<E>> handler) {
+        return subscribe(type, batch -> SwingUtilities.invokeLater(() -> handler.accept(batch)));
+    }
+
+    private static void dispatchLoop() {
+        List<DomainEvent> drained = new ArrayList<>();
+        while (true) {
+            try {
+                DomainEvent first = queue.take();
+                // Let the rest of a burst arrive, then take it all in one go
+                Thread.sleep(COALESCE_MILLIS);
+                drained.add(first);
+                queue.drainTo(drained);
+                dispatch(drained);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    private static void dispatch(List<DomainEvent> events) {
+        Map<Class<?>, Set<DomainEvent>> byType = new LinkedHashMap<>();
+        if (overflowed.getAndSet(false)) {
+            // Some events were lost, so the individual ones are no longer enough
+            byType.put(DomainEvent.Resync.class, new LinkedHashSet<>(List.of(DomainEvent.Resync.INSTANCE)));
+        } else {
+            for (DomainEvent event : events) {
+                byType.computeIfAbsent(event.getClass(), k -> new LinkedHashSet<>()).add(event);
+            }
+        }
+        for (Map.Entry<Class<?>, Set<DomainEvent>> entry : byType.entrySet()) {
+            List<DomainEvent> batch = new ArrayList<>(entry.getValue());
+            for (Subscription<?> subscription : subscriptions) {
+                if (subscription.type == entry.getKey()) {
+                    try {
+                        subscription.deliver(batch);
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    public static int getQueueDepth() { return queue.size(); }
+    public static long getPublishedCount() { return publishedCount.sum(); }
+    public static long getDroppedCount() { return droppedCount.sum(); }
+}
@@ -0,0 +1,109 @@
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Fines as a ledger. Charges are posted by triggers whenever an issue's fine_amount is set
+// or changed; payments are posted here. member_balance holds each member's running total
+// and is updated by a trigger in the same transaction as every ledger insert.
+public class FineDAO {
+
+    private static final String ENTRY_SELECT =
+        "SELECT id, member_id, issue_id, entry_date, kind, amount, note FROM fine_ledger ";
+    // Shared with QueryPlanCheck, which explains exactly these strings
+    static final String BALANCE_SQL = "SELECT balance FROM member_balance WHERE member_id = ?";
+
+    public double getBalance(int memberId) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            return readBalance(conn, memberId);
+        }
+    }
+
+    // Shared with IssueDAO's loan summary so both read the same figure
+    static double readBalance(Connection conn, int memberId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(BALANCE_SQL)) {
+            ps.setInt(1, memberId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getDouble(1) : 0.0;
+            }
+        }
+    }
+
+    // Records a payment against the member's balance; paying more than is owed is refused
+    public FineEntry recordPayment(int memberId, double amount, String note) throws SQLException {
+        if (!(amount > 0)) {
+            throw new SQLException("Payment amount must be positive");
+        }
+        LocalDate today = BusinessDate.today();
+        String sql = "INSERT INTO fine_ledger (member_id, issue_id, entry_date, kind, amount, note) VALUES (?, NULL, ?, ?, ?, ?)";
+        int id = Database.write(conn -> {
+            double balance = readBalance(conn, memberId);
+            // Amounts are whole paise in practice; allow for REAL rounding in the running sum
+            if (amount > balance + 0.005) {
+                throw new SQLException(String.format("Payment of Rs %.2f exceeds the outstanding balance of Rs %.2f",
+                        amount, balance));
+            }
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, memberId);
+                ps.setLong(2, today.toEpochDay());
+                ps.setString(3, FineEntry.PAYMENT);
+                ps.setDouble(4, -amount);
+                ps.setString(5, note);
+                ps.executeUpdate();
+            }
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
+        return new FineEntry(id, memberId, null, today, FineEntry.PAYMENT, -amount, note);
+    }
+
+    // A member's statement, newest first. Pass the last entry of the previous page
+    // (null for the first page) as the cursor.
+    public Page<FineEntry> getStatement(int memberId, FineEntry after, int pageSize) throws SQLException {
+        String sql = statementSql(after != null);
+
+        List<FineEntry> rows = new ArrayList<>(pageSize + 1);
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            ps.setInt(i++, memberId);
+            if (after != null) {
+                long day = after.getEntryDate().toEpochDay();
+                ps.setLong(i++, day);
+                ps.setLong(i++, day);
+                ps.setInt(i++, after.getId());
+            }
+            ps.setInt(i, pageSize + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapEntry(rs));
+                }
+            }
+        }
+        return Page.of(rows, pageSize);
+    }
+
+    static String statementSql(boolean hasCursor) {
+        StringBuilder sql = new StringBuilder(ENTRY_SELECT).append("WHERE member_id = ?");
+        if (hasCursor) {
+            sql.append(" AND entry_date <= ? AND (entry_date < ? OR id < ?)");
+        }
+        return sql.append(" ORDER BY entry_date DESC, id DESC LIMIT ?").toString();
+    }
+
+    private FineEntry mapEntry(ResultSet rs) throws SQLException {
+        int issueId = rs.getInt("issue_id");
+        boolean noIssue = rs.wasNull();
+        return new FineEntry(
+            rs.getInt("id"),
+            rs.getInt("member_id"),
+            noIssue ? null : issueId,
+            LocalDate.ofEpochDay(rs.getLong("entry_date")),
+            rs.getString("kind"),
+            rs.getDouble("amount"),
+            rs.getString("note")
+        );
+    }
+}
@@ -0,0 +1,35 @@
+import java.time.LocalDate;
+
+// One line of a member's fine statement
+public class FineEntry {
+    public static final String CHARGE = "CHARGE";
+    public static final String PAYMENT = "PAYMENT";
+    public static final String ADJUSTMENT = "ADJUSTMENT";
+
+    private final int id;
+    private final int memberId;
+    private final Integer issueId; // null for payments
+    private final LocalDate entryDate;
+    private final String kind;
+    private final double amount;   // positive charges, negative payments
+    private final String note;
+
+    public FineEntry(int id, int memberId, Integer issueId, LocalDate entryDate, String kind, double amount, String note) {
+        this.id = id;
+        this.memberId = memberId;
+        this.issueId = issueId;
+        this.entryDate = entryDate;
+        this.kind = kind;
+        this.amount = amount;
+        this.note = note;
+    }
+
+    // getters
+    public int getId() { return id; }
+    public int getMemberId() { return memberId; }
+    public Integer getIssueId() { return issueId; }
+    public LocalDate getEntryDate() { return entryDate; }
+    public String getKind() { return kind; }
+    public double getAmount() { return amount; }
+    public String getNote() { return note; }
+}
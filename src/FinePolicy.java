@@ -0,0 +1,257 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Overdue fines per member type: a daily rate, grace days before the first charge and an
+// optional cap. Days the library is closed (weekly closing days and holidays) are not
+// charged. The rules are compiled once into lookup tables: a running count of open days
+// over the calendar and each rule's fine by chargeable days, so a loan is assessed with
+// a few array reads and no date arithmetic.
+public class FinePolicy {
+    public static final String STUDENT = "STUDENT";
+    public static final String FACULTY = "FACULTY";
+    public static final String PUBLIC = "PUBLIC";
+
+    // The member forms also offer TEACHER and STAFF; they are charged as faculty
+    private static final String[][] ALIASES = { { "TEACHER", FACULTY }, { "STAFF", FACULTY } };
+
+    // Calendar days covered by the open-day table around today; outside it, and outside the
+    // span of configured holidays, only the weekly closing days apply and are counted directly
+    private static final int CALENDAR_MARGIN_DAYS = 366;
+    // Fine table length for uncapped rules; longer overdue spells are computed from the rate
+    private static final int UNCAPPED_TABLE_DAYS = 3660;
+
+    public static final class Rule {
+        private final double ratePerDay;
+        private final int graceDays;
+        private final double cap; // 0 for no cap
+        private final double[] fineByDays;
+
+        public Rule(double ratePerDay, int graceDays, double cap) {
+            this.ratePerDay = Math.max(0.0, ratePerDay);
+            this.graceDays = Math.max(0, graceDays);
+            this.cap = Math.max(0.0, cap);
+            int tableDays = this.cap > 0 && this.ratePerDay > 0
+                ? this.graceDays + (int) Math.ceil(this.cap / this.ratePerDay)
+                : this.graceDays + UNCAPPED_TABLE_DAYS;
+            fineByDays = new double[tableDays + 1];
+            for (int days = 0; days <= tableDays; days++) {
+                fineByDays[days] = compute(days);
+            }
+        }
+
+        private double compute(long chargeableDays) {
+            if (chargeableDays <= graceDays) {
+                return 0.0;
+            }
+            double fine = (chargeableDays - graceDays) * ratePerDay;
+            return cap > 0 ? Math.min(cap, fine) : fine;
+        }
+
+        // Fine after the given number of open days past the due date
+        public double fineAt(long chargeableDays) {
+            if (chargeableDays < fineByDays.length) {
+                return fineByDays[(int) Math.max(0, chargeableDays)];
+            }
+            return cap > 0 ? cap : compute(chargeableDays);
+        }
+
+        public double getRatePerDay() { return ratePerDay; }
+        public int getGraceDays() { return graceDays; }
+        public double getCap() { return cap; }
+    }
+
+    private static volatile FinePolicy current;
+
+    private final Map<String, Rule> rules;
+    private final Rule defaultRule;
+    private final boolean[] closedWeekday = new boolean[7]; // DayOfWeek.getValue() - 1
+    private final int openPerWeek;
+    private final long calendarStart;
+    private final int[] openBefore; // open days in [calendarStart, calendarStart + i)
+
+    public FinePolicy(Map<String, Rule> rules, Set<DayOfWeek> closedWeekdays, Set<LocalDate> closedDates, LocalDate today) {
+        this.rules = new HashMap<>(rules);
+        for (String[] alias : ALIASES) {
+            Rule target = this.rules.get(alias[1]);
+            if (target != null) {
+                this.rules.putIfAbsent(alias[0], target);
+            }
+        }
+        Rule fallback = this.rules.get(PUBLIC);
+        this.defaultRule = fallback != null ? fallback : new Rule(0.0, 0, 0.0);
+
+        int open = 7;
+        for (DayOfWeek day : closedWeekdays) {
+            closedWeekday[day.getValue() - 1] = true;
+            open--;
+        }
+        this.openPerWeek = open;
+
+        long start = today.toEpochDay() - CALENDAR_MARGIN_DAYS;
+        long end = today.toEpochDay() + CALENDAR_MARGIN_DAYS;
+        for (LocalDate date : closedDates) {
+            start = Math.min(start, date.toEpochDay());
+            end = Math.max(end, date.toEpochDay() + 1);
+        }
+        this.calendarStart = start;
+        this.openBefore = new int[(int) (end - start) + 1];
+        for (int i = 0; i < openBefore.length - 1; i++) {
+            long day = start + i;
+            boolean closed = isClosedWeekday(day) || closedDates.contains(LocalDate.ofEpochDay(day));
+            openBefore[i + 1] = openBefore[i] + (closed ? 0 : 1);
+        }
+    }
+
+    // Compiled from system properties on first use, e.g. -Dlibrary.fine.STUDENT.ratePerDay=5
+    // -Dlibrary.fine.STUDENT.graceDays=2 -Dlibrary.fine.PUBLIC.cap=500
+    // -Dlibrary.fine.closedWeekdays=SUNDAY -Dlibrary.fine.closedDates=2026-12-25,2027-01-26
+    public static FinePolicy current() {
+        FinePolicy policy = current;
+        if (policy == null) {
+            synchronized (FinePolicy.class) {
+                policy = current;
+                if (policy == null) {
+                    policy = fromSystemProperties(BusinessDate.today());
+                    current = policy;
+                }
+            }
+        }
+        return policy;
+    }
+
+    // Rebuilds the tables around the new business date; called by the rollover job
+    public static FinePolicy recompile() {
+        FinePolicy policy = fromSystemProperties(BusinessDate.today());
+        current = policy;
+        return policy;
+    }
+
+    public static FinePolicy fromSystemProperties(LocalDate today) {
+        Map<String, Rule> rules = new HashMap<>();
+        for (String type : new String[] { STUDENT, FACULTY, PUBLIC }) {
+            String prefix = "library.fine." + type + ".";
+            rules.put(type, new Rule(
+                doubleProperty(prefix + "ratePerDay", 10.0), // Rs 10 per day overdue
+                Integer.getInteger(prefix + "graceDays", 0),
+                doubleProperty(prefix + "cap", 0.0)));
+        }
+
+        Set<DayOfWeek> closedWeekdays = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : listProperty("library.fine.closedWeekdays")) {
+            try {
+                closedWeekdays.add(DayOfWeek.valueOf(day.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Warning: ignoring unknown closed weekday '" + day + "'");
+            }
+        }
+        if (closedWeekdays.size() == 7) {
+            System.err.println("Warning: every weekday is marked closed; ignoring library.fine.closedWeekdays");
+            closedWeekdays.clear();
+        }
+
+        Set<LocalDate> closedDates = new TreeSet<>();
+        for (String date : listProperty("library.fine.closedDates")) {
+            try {
+                closedDates.add(LocalDate.parse(date));
+            } catch (DateTimeParseException e) {
+                System.err.println("Warning: ignoring invalid closed date '" + date + "'");
+            }
+        }
+        return new FinePolicy(rules, closedWeekdays, closedDates, today);
+    }
+
+    // Fine accrued by an active loan as of the given date; returned loans keep their stored fine
+    public double fineFor(Issue issue, LocalDate asOf) {
+        if ("RETURNED".equals(issue.getStatus())) {
+            return issue.getFineAmount();
+        }
+        return fineFor(issue.getMemberType(), issue.getDueDate(), asOf);
+    }
+
+    public double fineFor(String memberType, LocalDate dueDate, LocalDate asOf) {
+        if (!asOf.isAfter(dueDate)) {
+            return 0.0;
+        }
+        return ruleFor(memberType).fineAt(openBefore(asOf.toEpochDay() + 1) - openBefore(dueDate.toEpochDay() + 1));
+    }
+
+    // Sets each active loan's fine as of the given date in one pass and returns the total.
+    // Meant for a page or the whole overdue set; the as-of position is looked up once.
+    public double assess(List<Issue> loans, LocalDate asOf) {
+        long asOfDay = asOf.toEpochDay();
+        long openThroughAsOf = openBefore(asOfDay + 1);
+        double total = 0.0;
+        for (Issue loan : loans) {
+            if ("RETURNED".equals(loan.getStatus())) {
+                total += loan.getFineAmount();
+                continue;
+            }
+            long dueDay = loan.getDueDate().toEpochDay();
+            double fine = dueDay < asOfDay
+                ? ruleFor(loan.getMemberType()).fineAt(openThroughAsOf - openBefore(dueDay + 1))
+                : 0.0;
+            loan.setFineAmount(fine);
+            total += fine;
+        }
+        return total;
+    }
+
+    public Rule ruleFor(String memberType) {
+        Rule rule = memberType != null ? rules.get(memberType) : null;
+        return rule != null ? rule : defaultRule;
+    }
+
+    // Open days in [calendarStart, day); negative before the table starts
+    private long openBefore(long day) {
+        int last = openBefore.length - 1;
+        if (day < calendarStart) {
+            return -openWeekdays(day, calendarStart);
+        }
+        if (day > calendarStart + last) {
+            return openBefore[last] + openWeekdays(calendarStart + last, day);
+        }
+        return openBefore[(int) (day - calendarStart)];
+    }
+
+    // Days in [from, to) that are not weekly closing days
+    private long openWeekdays(long from, long to) {
+        long days = to - from;
+        long count = (days / 7) * openPerWeek;
+        for (long day = from + (days / 7) * 7; day < to; day++) {
+            if (!isClosedWeekday(day)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isClosedWeekday(long epochDay) {
+        // 1970-01-01 was a Thursday (index 3)
+        return closedWeekday[(int) Math.floorMod(epochDay + 3, 7L)];
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: ignoring invalid " + name + "='" + value + "'");
+            return defaultValue;
+        }
+    }
+
+    private static String[] listProperty(String name) {
+        String value = System.getProperty(name, "").trim();
+        return value.isEmpty() ? new String[0] : value.split("\\s*,\\s*");
+    }
+}
@@ -0,0 +1,106 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// Times FinePolicy.assess over a synthetic overdue set against a per-loan day walk, the
+// way fines were computed before the lookup tables. No database needed.
+// Usage: java -cp classes FinePolicyBenchmark [loans] [rounds]
+public class FinePolicyBenchmark {
+
+    public static void main(String[] args) {
+        int loanCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        LocalDate today = LocalDate.now();
+
+        Map<String, FinePolicy.Rule> rules = new HashMap<>();
+        rules.put(FinePolicy.STUDENT, new FinePolicy.Rule(5.0, 2, 300.0));
+        rules.put(FinePolicy.FACULTY, new FinePolicy.Rule(2.0, 7, 0.0));
+        rules.put(FinePolicy.PUBLIC, new FinePolicy.Rule(10.0, 0, 1000.0));
+        Set<DayOfWeek> closedWeekdays = EnumSet.of(DayOfWeek.SUNDAY);
+        Set<LocalDate> closedDates = new HashSet<>();
+        for (int i = 1; i <= 12; i++) {
+            closedDates.add(today.minusMonths(i).withDayOfMonth(1)); // one holiday a month
+        }
+        FinePolicy policy = new FinePolicy(rules, closedWeekdays, closedDates, today);
+
+        String[] types = { FinePolicy.STUDENT, FinePolicy.FACULTY, FinePolicy.PUBLIC, "TEACHER" };
+        Random random = new Random(42);
+        List<Issue> loans = new ArrayList<>(loanCount);
+        for (int i = 0; i < loanCount; i++) {
+            Issue loan = new Issue(0, i + 1, i + 1, today.minusDays(400), null,
+                    today.minusDays(1 + random.nextInt(365)), "ISSUED", 0.0);
+            loan.setMemberType(types[i % types.length]);
+            loans.add(loan);
+        }
+
+        System.out.println("Assessing " + loanCount + " overdue loans, " + rounds + " rounds after warm-up");
+        double expected = 0;
+        for (Issue loan : loans) {
+            expected += dayWalk(policy.ruleFor(loan.getMemberType()), loan.getDueDate(), today, closedWeekdays, closedDates);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            walkAll(policy, loans, today, closedWeekdays, closedDates);
+            policy.assess(loans, today);
+        }
+
+        long walkNanos = 0;
+        long assessNanos = 0;
+        double walked = 0;
+        double assessed = 0;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            walked = walkAll(policy, loans, today, closedWeekdays, closedDates);
+            walkNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            assessed = policy.assess(loans, today);
+            assessNanos += System.nanoTime() - start;
+        }
+
+        report("per-loan day walk", walkNanos, rounds, loanCount, walked);
+        report("FinePolicy.assess", assessNanos, rounds, loanCount, assessed);
+        if (Math.abs(assessed - expected) > 0.01 || Math.abs(walked - expected) > 0.01) {
+            System.err.println("Totals disagree: expected Rs " + String.format("%.2f", expected));
+            System.exit(1);
+        }
+    }
+
+    private static double walkAll(FinePolicy policy, List<Issue> loans, LocalDate today,
+                                  Set<DayOfWeek> closedWeekdays, Set<LocalDate> closedDates) {
+        double total = 0;
+        for (Issue loan : loans) {
+            total += dayWalk(policy.ruleFor(loan.getMemberType()), loan.getDueDate(), today, closedWeekdays, closedDates);
+        }
+        return total;
+    }
+
+    // Counts chargeable days one date at a time
+    private static double dayWalk(FinePolicy.Rule rule, LocalDate dueDate, LocalDate today,
+                                  Set<DayOfWeek> closedWeekdays, Set<LocalDate> closedDates) {
+        long chargeable = 0;
+        for (LocalDate day = dueDate.plusDays(1); !day.isAfter(today); day = day.plusDays(1)) {
+            if (!closedWeekdays.contains(day.getDayOfWeek()) && !closedDates.contains(day)) {
+                chargeable++;
+            }
+        }
+        if (chargeable <= rule.getGraceDays()) {
+            return 0.0;
+        }
+        double fine = (chargeable - rule.getGraceDays()) * rule.getRatePerDay();
+        return rule.getCap() > 0 ? Math.min(rule.getCap(), fine) : fine;
+    }
+
+    private static void report(String name, long nanos, int rounds, int loanCount, double total) {
+        double millis = nanos / 1_000_000.0 / rounds;
+        System.out.println(String.format("  %-20s %8.2f ms/round  %7.1f ns/loan  total Rs %.2f",
+                name, millis, nanos / (double) rounds / loanCount, total));
+    }
+}
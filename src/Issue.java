@@ -6,6 +6,7 @@ public class Issue {
     private int memberId;
     private String bookTitle;  // For display purposes
     private String memberName; // For display purposes
+    private String memberType; // Selects the fine rule, see FinePolicy
     private LocalDate issueDate;
     private LocalDate returnDate;
     private LocalDate dueDate;
@@ -27,7 +28,7 @@ public class Issue {
     }
 
     public Issue(int bookId, int memberId, LocalDate dueDate) {
-        this(0, bookId, memberId, LocalDate.now(), null, dueDate, "ISSUED", 0.0);
+        this(0, bookId, memberId, BusinessDate.today(), null, dueDate, "ISSUED", 0.0);
     }
 
     // Getters and Setters
@@ -46,6 +47,9 @@ public class Issue {
     public String getMemberName() { return memberName; }
     public void setMemberName(String memberName) { this.memberName = memberName; }
     
+    public String getMemberType() { return memberType; }
+    public void setMemberType(String memberType) { this.memberType = memberType; }
+    
     public LocalDate getIssueDate() { return issueDate; }
     public void setIssueDate(LocalDate issueDate) { this.issueDate = issueDate; }
     
@@ -62,11 +66,11 @@ public class Issue {
     public void setFineAmount(double fineAmount) { this.fineAmount = fineAmount; }
     
     public boolean isOverdue() {
-        return LocalDate.now().isAfter(dueDate) && !"RETURNED".equals(status);
+        return BusinessDate.today().isAfter(dueDate) && !"RETURNED".equals(status);
     }
     
     public long getDaysOverdue() {
         if (!isOverdue()) return 0;
-        return java.time.temporal.ChronoUnit.DAYS.between(dueDate, LocalDate.now());
+        return java.time.temporal.ChronoUnit.DAYS.between(dueDate, BusinessDate.today());
     }
 }
@@ -1,106 +1,78 @@
 import java.sql.*;
 import java.time.LocalDate;
-import java.time.Instant;
-import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class IssueDAO {
     
-    // Helper method to safely parse dates from database
-    private LocalDate safeParseDateString(String dateStr) {
-        if (dateStr == null || dateStr.trim().isEmpty()) {
-            return null;
-        }
-        
-        try {
-            // Try to parse as timestamp (milliseconds)
-            if (dateStr.matches("\\d+")) {
-                long timestamp = Long.parseLong(dateStr);
-                return Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault()).toLocalDate();
-            }
-            
-            // Try to parse as date string (YYYY-MM-DD)
-            return LocalDate.parse(dateStr);
-            
-        } catch (Exception e) {
-            // If all parsing fails, return null for return_date or current date for others
-            System.err.println("Warning: Could not parse date '" + dateStr + "', returning null");
-            return null;
-        }
-    }
+    // Every filter is on the issue columns, so the loans drive the join and books and members
+    // are primary-key lookups. CROSS JOIN pins that order; left to the statistics SQLite may
+    // scan members first for the history view.
+    private static final String ISSUE_SELECT =
+        "SELECT i.*, b.title as book_title, m.name as member_name, m.member_type " +
+        "FROM issues i " +
+        "CROSS JOIN books b ON i.book_id = b.id " +
+        "CROSS JOIN members m ON i.member_id = m.id ";
     
-    // Helper method for issue dates with default fallback
-    private LocalDate safeParseIssueDate(String dateStr) {
-        LocalDate result = safeParseDateString(dateStr);
-        return result != null ? result : LocalDate.now();
-    }
+    // Active loans in due-date order walk the partial index of active loans. Until ANALYZE has
+    // seen loans SQLite prefers idx_issues_status and sorts afterwards, so the index is named.
+    private static final String DUE_ORDER_SELECT =
+        "SELECT i.*, b.title as book_title, m.name as member_name, m.member_type " +
+        "FROM issues i INDEXED BY idx_issues_active_due " +
+        "CROSS JOIN books b ON i.book_id = b.id " +
+        "CROSS JOIN members m ON i.member_id = m.id ";
     
-    // Helper method for due dates with default fallback
-    private LocalDate safeParseDueDate(String dateStr) {
-        LocalDate result = safeParseDateString(dateStr);
-        return result != null ? result : LocalDate.now().plusDays(14);
-    }
+    // Full history: the active table plus archived returns (see archiveReturnedBefore)
+    private static final String HISTORY_SELECT =
+        "SELECT i.*, b.title as book_title, m.name as member_name, m.member_type " +
+        "FROM issues_all i " +
+        "CROSS JOIN books b ON i.book_id = b.id " +
+        "CROSS JOIN members m ON i.member_id = m.id ";
     
-    public void issueBook(Issue issue) throws SQLException {
-        String sql = "INSERT INTO issues(book_id, member_id, due_date) VALUES (?, ?, ?)";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, issue.getBookId());
-            ps.setInt(2, issue.getMemberId());
-            ps.setDate(3, Date.valueOf(issue.getDueDate()));
-            ps.executeUpdate();
-        }
-    }
-    
-    public void issueBookWithDates(Issue issue, LocalDate issueDate) throws SQLException {
-        String sql = "INSERT INTO issues(book_id, member_id, issue_date, due_date) VALUES (?, ?, ?, ?)";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, issue.getBookId());
-            ps.setInt(2, issue.getMemberId());
-            ps.setDate(3, Date.valueOf(issueDate));
-            ps.setDate(4, Date.valueOf(issue.getDueDate()));
-            ps.executeUpdate();
-        }
-    }
+    // Statements shared with QueryPlanCheck, which explains exactly these strings
+    static final String ALL_ISSUES_SQL = HISTORY_SELECT + "ORDER BY i.id DESC";
+    static final String CURRENT_ISSUES_SQL = DUE_ORDER_SELECT + "WHERE i.status = 'ISSUED' ORDER BY i.due_date ASC";
+    static final String OVERDUE_ISSUES_SQL = DUE_ORDER_SELECT + "WHERE i.status = 'ISSUED' AND i.due_date < ? ORDER BY i.due_date ASC";
+    static final String AVAILABLE_COPIES_SQL = "SELECT available_copies FROM books WHERE id = ?";
+    static final String LOAN_SUMMARY_SQL =
+        "SELECT COUNT(CASE WHEN status = 'ISSUED' THEN 1 END) AS active_loans, " +
+        "COUNT(CASE WHEN status = 'ISSUED' AND book_id = ? THEN 1 END) AS held_copies, " +
+        "COALESCE((SELECT balance FROM member_balance WHERE member_id = ?), 0) AS outstanding_fines " +
+        "FROM issues WHERE member_id = ?";
+    static final String ISSUE_BY_ID_SQL = HISTORY_SELECT + "WHERE i.id = ?";
+    static final String ACTIVE_ISSUE_BY_ID_SQL = ISSUE_SELECT + "WHERE i.id = ?";
+    static final String RECENT_RETURNS_SQL = HISTORY_SELECT +
+        "WHERE i.status = 'RETURNED' ORDER BY i.return_date DESC, i.id DESC LIMIT ?";
+    static final String OVERDUE_LOANS_SQL =
+        "SELECT i.id, i.book_id, i.member_id, i.due_date, i.fine_amount, i.overdue_since, m.member_type " +
+        "FROM issues i JOIN members m ON m.id = i.member_id " +
+        "WHERE i.status = 'ISSUED' AND i.due_date < ?";
+    static final String STALE_OVERDUE_SQL =
+        "SELECT id, book_id, member_id, due_date, fine_amount FROM issues " +
+        "WHERE status = 'ISSUED' AND due_date >= ? AND overdue_since IS NOT NULL";
+    static final String ARCHIVE_PICK_SQL =
+        "SELECT id FROM issues WHERE status = 'RETURNED' AND return_date < ? ORDER BY return_date LIMIT ?";
+    // Used by CirculationService, the only writer of loans. Only an active loan can be
+    // returned; 0 rows updated means it already was.
+    static final String RETURN_BOOK_SQL =
+        "UPDATE issues SET return_date=?, status='RETURNED', fine_amount=? WHERE id=? AND status='ISSUED'";
     
-    public void returnBook(int issueId, double fineAmount) throws SQLException {
-        String sql = "UPDATE issues SET return_date=?, status='RETURNED', fine_amount=? WHERE id=?";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setDate(1, Date.valueOf(LocalDate.now()));
-            ps.setDouble(2, fineAmount);
-            ps.setInt(3, issueId);
-            ps.executeUpdate();
-        }
-    }
+    // Archival moves rows in chunks so the writer is never held for long
+    private static final int ARCHIVE_CHUNK_SIZE = Integer.getInteger("library.archive.chunkSize", 500);
+    private static final int OVERDUE_CHUNK_SIZE = Integer.getInteger("library.overdue.chunkSize", 500);
     
     public List<Issue> getAllIssues() throws SQLException {
         List<Issue> issues = new ArrayList<>();
-        String sql = "SELECT i.*, b.title as book_title, m.name as member_name " +
-                    "FROM issues i " +
-                    "JOIN books b ON i.book_id = b.id " +
-                    "JOIN members m ON i.member_id = m.id " +
-                    "ORDER BY i.id DESC";
+        String sql = ALL_ISSUES_SQL;
         
         try (Connection conn = Database.getConnection();
              Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(sql)) {
             while (rs.next()) {
-                Issue issue = new Issue(
-                    rs.getInt("id"),
-                    rs.getInt("book_id"),
-                    rs.getInt("member_id"),
-                    safeParseIssueDate(rs.getString("issue_date")),
-                    safeParseDateString(rs.getString("return_date")), // can be null
-                    safeParseDueDate(rs.getString("due_date")),
-                    rs.getString("status"),
-                    rs.getDouble("fine_amount")
-                );
-                issue.setBookTitle(rs.getString("book_title"));
-                issue.setMemberName(rs.getString("member_name"));
-                issues.add(issue);
+                issues.add(mapIssue(rs));
             }
         }
         return issues;
@@ -108,30 +80,13 @@ public class IssueDAO {
     
     public List<Issue> getCurrentIssues() throws SQLException {
         List<Issue> issues = new ArrayList<>();
-        String sql = "SELECT i.*, b.title as book_title, m.name as member_name " +
-                    "FROM issues i " +
-                    "JOIN books b ON i.book_id = b.id " +
-                    "JOIN members m ON i.member_id = m.id " +
-                    "WHERE i.status = 'ISSUED' " +
-                    "ORDER BY i.due_date ASC";
+        String sql = CURRENT_ISSUES_SQL;
         
         try (Connection conn = Database.getConnection();
              Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(sql)) {
             while (rs.next()) {
-                Issue issue = new Issue(
-                    rs.getInt("id"),
-                    rs.getInt("book_id"),
-                    rs.getInt("member_id"),
-                    safeParseIssueDate(rs.getString("issue_date")),
-                    safeParseDateString(rs.getString("return_date")), // can be null
-                    safeParseDueDate(rs.getString("due_date")),
-                    rs.getString("status"),
-                    rs.getDouble("fine_amount")
-                );
-                issue.setBookTitle(rs.getString("book_title"));
-                issue.setMemberName(rs.getString("member_name"));
-                issues.add(issue);
+                issues.add(mapIssue(rs));
             }
         }
         return issues;
@@ -139,91 +94,396 @@ public class IssueDAO {
     
     public List<Issue> getOverdueIssues() throws SQLException {
         List<Issue> issues = new ArrayList<>();
-        String sql = "SELECT i.*, b.title as book_title, m.name as member_name " +
-                    "FROM issues i " +
-                    "JOIN books b ON i.book_id = b.id " +
-                    "JOIN members m ON i.member_id = m.id " +
-                    "WHERE i.status = 'ISSUED' AND i.due_date < date('now') " +
-                    "ORDER BY i.due_date ASC";
+        String sql = OVERDUE_ISSUES_SQL;
         
         try (Connection conn = Database.getConnection();
-             Statement st = conn.createStatement();
-             ResultSet rs = st.executeQuery(sql)) {
-            while (rs.next()) {
-                Issue issue = new Issue(
-                    rs.getInt("id"),
-                    rs.getInt("book_id"),
-                    rs.getInt("member_id"),
-                    safeParseIssueDate(rs.getString("issue_date")),
-                    safeParseDateString(rs.getString("return_date")), // can be null
-                    safeParseDueDate(rs.getString("due_date")),
-                    rs.getString("status"),
-                    rs.getDouble("fine_amount")
-                );
-                issue.setBookTitle(rs.getString("book_title"));
-                issue.setMemberName(rs.getString("member_name"));
-                issues.add(issue);
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, BusinessDate.todayEpochDay());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    issues.add(mapIssue(rs));
+                }
             }
         }
         return issues;
     }
     
     public boolean isBookAvailable(int bookId) throws SQLException {
-        String sql = "SELECT b.quantity, " +
-                    "(SELECT COUNT(*) FROM issues WHERE book_id = ? AND status = 'ISSUED') as issued_count " +
-                    "FROM books b WHERE b.id = ?";
+        String sql = AVAILABLE_COPIES_SQL;
         
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, bookId);
-            ps.setInt(2, bookId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    int quantity = rs.getInt("quantity");
-                    int issuedCount = rs.getInt("issued_count");
-                    return quantity > issuedCount;
+                    return rs.getInt("available_copies") > 0;
                 }
             }
         }
         return false;
     }
     
-    public double calculateFine(Issue issue) {
-        if (issue.isOverdue()) {
-            long daysOverdue = issue.getDaysOverdue();
-            return daysOverdue * 1.0; // $1 per day fine
+    // Active loan count, whether bookId is among them and the unpaid fine balance for one member:
+    // a covering-index range over the member's issues plus one member_balance key lookup
+    public MemberLoanSummary getMemberLoanSummary(int memberId, int bookId) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            return readMemberLoanSummary(conn, memberId, bookId);
+        }
+    }
+    
+    // Shared with CirculationService, which runs it inside the issuing transaction
+    static MemberLoanSummary readMemberLoanSummary(Connection conn, int memberId, int bookId) throws SQLException {
+        String sql = LOAN_SUMMARY_SQL;
+        
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, bookId);
+            ps.setInt(2, memberId);
+            ps.setInt(3, memberId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next(); // aggregate without GROUP BY always yields one row
+                return new MemberLoanSummary(memberId,
+                        rs.getInt("active_loans"),
+                        rs.getInt("held_copies") > 0,
+                        rs.getDouble("outstanding_fines"));
+            }
         }
-        return 0.0;
+    }
+    
+    public MemberLoanSummary getMemberLoanSummary(int memberId) throws SQLException {
+        return getMemberLoanSummary(memberId, 0);
+    }
+    
+    public double calculateFine(Issue issue) {
+        return FinePolicy.current().fineFor(issue, BusinessDate.today());
     }
     
     public Issue getIssueById(int issueId) throws SQLException {
-        String sql = "SELECT i.*, b.title as book_title, m.name as member_name " +
-                    "FROM issues i " +
-                    "JOIN books b ON i.book_id = b.id " +
-                    "JOIN members m ON i.member_id = m.id " +
-                    "WHERE i.id = ?";
+        String sql = ISSUE_BY_ID_SQL;
         
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, issueId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    Issue issue = new Issue(
-                        rs.getInt("id"),
-                        rs.getInt("book_id"),
-                        rs.getInt("member_id"),
-                        safeParseIssueDate(rs.getString("issue_date")),
-                        safeParseDateString(rs.getString("return_date")), // can be null
-                        safeParseDueDate(rs.getString("due_date")),
-                        rs.getString("status"),
-                        rs.getDouble("fine_amount")
-                    );
-                    issue.setBookTitle(rs.getString("book_title"));
-                    issue.setMemberName(rs.getString("member_name"));
-                    return issue;
+                    return mapIssue(rs);
                 }
             }
         }
         return null; // Issue not found
     }
+    
+    // Active-table lookup on a connection the caller owns, e.g. inside a CirculationService
+    // transaction; archived rows are returned loans and never change again
+    Issue readIssue(Connection conn, int issueId) throws SQLException {
+        String sql = ACTIVE_ISSUE_BY_ID_SQL;
+        
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, issueId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return mapIssue(rs);
+                }
+            }
+        }
+        return null; // Issue not found
+    }
+    
+    public int countIssues(IssueFilter filter) throws SQLException {
+        String sql = countSql(filter);
+        try (Connection conn = Database.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    // One window of a filtered list in (due date, id) order, as shown by the circulation tables.
+    // Seeks past the given row (null to start at the top), then skips skip rows.
+    public List<Issue> getIssuesAt(IssueFilter filter, Issue after, int skip, int limit) throws SQLException {
+        List<Issue> issues = new ArrayList<>(limit);
+        String sql = issuesAtSql(filter);
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, after != null ? after.getDueDate().toEpochDay() : Long.MIN_VALUE);
+            ps.setLong(2, after != null ? after.getId() : Long.MIN_VALUE);
+            ps.setInt(3, limit);
+            ps.setInt(4, skip);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    issues.add(mapIssue(rs));
+                }
+            }
+        }
+        return issues;
+    }
+    
+    // Issue history newest first. Pass the id of the last row of the previous page
+    // (null for the first page) and optionally restrict to one status.
+    public Page<Issue> getIssuesPage(Integer afterId, String status, int pageSize) throws SQLException {
+        String sql = issuesPageSql(afterId != null, status);
+        
+        List<Issue> rows = new ArrayList<>(pageSize + 1);
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (afterId != null) {
+                ps.setInt(i++, afterId);
+            }
+            if (status != null) {
+                ps.setString(i++, status);
+            }
+            ps.setInt(i, pageSize + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapIssue(rs));
+                }
+            }
+        }
+        return Page.of(rows, pageSize);
+    }
+    
+    // Latest returns, newest return date first, for the activity feed
+    public List<Issue> getRecentReturns(int limit) throws SQLException {
+        List<Issue> issues = new ArrayList<>(limit);
+        String sql = RECENT_RETURNS_SQL;
+        
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    issues.add(mapIssue(rs));
+                }
+            }
+        }
+        return issues;
+    }
+    
+    public int streamIssues(IssueFilter filter, Consumer<Issue> consumer) throws SQLException {
+        return streamIssues(filter, false, consumer);
+    }
+    
+    // Walks matching issues in id order over a forward-only cursor without building a list.
+    // With reuseRow one Issue instance is refilled per row, so the consumer must copy what it keeps.
+    public int streamIssues(IssueFilter filter, boolean reuseRow, Consumer<Issue> consumer) throws SQLException {
+        String sql = selectFor(filter) + filter.getWhereClause() + "ORDER BY i.id";
+        Issue row = reuseRow ? new Issue() : null;
+        int count = 0;
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = ResultSetStream.prepare(conn, sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                consumer.accept(mapIssue(rs, reuseRow ? row : new Issue()));
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    // Lazily mapped stream over the same cursor; must be closed by the caller
+    public Stream<Issue> issueStream(IssueFilter filter) throws SQLException {
+        String sql = selectFor(filter) + filter.getWhereClause() + "ORDER BY i.id";
+        return ResultSetStream.query(sql, rs -> mapIssue(rs, new Issue()));
+    }
+    
+    // Materializes overdue state as of the given day. Loans past their due date get
+    // overdue_since the first time they are seen and fine_amount set to the fine accrued so far;
+    // the ledger triggers post each difference. Loans whose due date moved back out of range
+    // are cleared. Reads on a reader, writes in chunks, and publishes OverdueChanged for every
+    // loan it touched. Each update re-checks status and due date, so a loan returned or edited
+    // in between is left alone.
+    public OverdueAccrual accrueOverdueFines(LocalDate today, FinePolicy policy) throws SQLException {
+        String overdue = OVERDUE_LOANS_SQL;
+        String stale = STALE_OVERDUE_SQL;
+        long day = today.toEpochDay();
+        
+        List<Issue> loans = new ArrayList<>();
+        List<Double> storedFines = new ArrayList<>();
+        BitSet unmarked = new BitSet();
+        List<Issue> cleared = new ArrayList<>();
+        try (Connection conn = Database.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(overdue)) {
+                ps.setLong(1, day);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Issue loan = new Issue(rs.getInt("id"), rs.getInt("book_id"), rs.getInt("member_id"), null, null,
+                                LocalDate.ofEpochDay(rs.getLong("due_date")), "ISSUED", rs.getDouble("fine_amount"));
+                        loan.setMemberType(rs.getString("member_type"));
+                        rs.getLong("overdue_since");
+                        if (rs.wasNull()) {
+                            unmarked.set(loans.size());
+                        }
+                        storedFines.add(loan.getFineAmount());
+                        loans.add(loan);
+                    }
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(stale)) {
+                ps.setLong(1, day);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        cleared.add(new Issue(rs.getInt("id"), rs.getInt("book_id"), rs.getInt("member_id"), null, null,
+                                LocalDate.ofEpochDay(rs.getLong("due_date")), "ISSUED", rs.getDouble("fine_amount")));
+                    }
+                }
+            }
+        }
+        
+        policy.assess(loans, today);
+        List<Issue> changed = new ArrayList<>();
+        int finesUpdated = 0;
+        double accrued = 0.0;
+        for (int i = 0; i < loans.size(); i++) {
+            Issue loan = loans.get(i);
+            double delta = loan.getFineAmount() - storedFines.get(i);
+            boolean fineMoved = Math.abs(delta) >= 0.005;
+            if (fineMoved) {
+                finesUpdated++;
+                accrued += delta;
+            }
+            if (fineMoved || unmarked.get(i)) {
+                changed.add(loan);
+            }
+        }
+        for (Issue loan : cleared) {
+            accrued -= loan.getFineAmount();
+        }
+        
+        String mark = "UPDATE issues SET fine_amount = ?, overdue_since = COALESCE(overdue_since, ?) " +
+                      "WHERE id = ? AND status = 'ISSUED' AND due_date = ?";
+        for (int from = 0; from < changed.size(); from += OVERDUE_CHUNK_SIZE) {
+            List<Issue> chunk = changed.subList(from, Math.min(changed.size(), from + OVERDUE_CHUNK_SIZE));
+            Database.write(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(mark)) {
+                    for (Issue loan : chunk) {
+                        ps.setDouble(1, loan.getFineAmount());
+                        ps.setLong(2, day);
+                        ps.setInt(3, loan.getId());
+                        ps.setLong(4, loan.getDueDate().toEpochDay());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                return chunk.size();
+            });
+        }
+        String clear = "UPDATE issues SET fine_amount = 0, overdue_since = NULL " +
+                       "WHERE id = ? AND status = 'ISSUED' AND due_date = ?";
+        for (int from = 0; from < cleared.size(); from += OVERDUE_CHUNK_SIZE) {
+            List<Issue> chunk = cleared.subList(from, Math.min(cleared.size(), from + OVERDUE_CHUNK_SIZE));
+            Database.write(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(clear)) {
+                    for (Issue loan : chunk) {
+                        ps.setInt(1, loan.getId());
+                        ps.setLong(2, loan.getDueDate().toEpochDay());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                return chunk.size();
+            });
+        }
+        
+        changed.addAll(cleared);
+        for (Issue loan : changed) {
+            EventBus.publish(new DomainEvent.OverdueChanged(loan.getId(), loan.getBookId(), loan.getMemberId()));
+        }
+        return new OverdueAccrual(unmarked.cardinality(), finesUpdated, cleared.size(), accrued);
+    }
+    
+    // Moves returned loans whose return date is before the cutoff into issues_archive and
+    // returns how many rows moved. Each chunk is its own write, copied and deleted atomically.
+    public int archiveReturnedBefore(LocalDate cutoff) throws SQLException {
+        String pick = ARCHIVE_PICK_SQL;
+        String copy = "INSERT INTO issues_archive (id, book_id, member_id, issue_date, return_date, due_date, status, fine_amount) " +
+                      "SELECT id, book_id, member_id, issue_date, return_date, due_date, status, fine_amount FROM issues WHERE id = ?";
+        String delete = "DELETE FROM issues WHERE id = ?";
+        int total = 0;
+        while (true) {
+            int moved = Database.write(conn -> {
+                List<Integer> ids = new ArrayList<>(ARCHIVE_CHUNK_SIZE);
+                try (PreparedStatement ps = conn.prepareStatement(pick)) {
+                    ps.setLong(1, cutoff.toEpochDay());
+                    ps.setInt(2, ARCHIVE_CHUNK_SIZE);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getInt(1));
+                        }
+                    }
+                }
+                try (PreparedStatement copyPs = conn.prepareStatement(copy);
+                     PreparedStatement deletePs = conn.prepareStatement(delete)) {
+                    for (int id : ids) {
+                        copyPs.setInt(1, id);
+                        copyPs.addBatch();
+                        deletePs.setInt(1, id);
+                        deletePs.addBatch();
+                    }
+                    if (!ids.isEmpty()) {
+                        copyPs.executeBatch();
+                        deletePs.executeBatch();
+                    }
+                }
+                return ids.size();
+            });
+            total += moved;
+            if (moved < ARCHIVE_CHUNK_SIZE) {
+                return total;
+            }
+        }
+    }
+    
+    private static String selectFor(IssueFilter filter) {
+        return filter.isActiveOnly() ? ISSUE_SELECT : HISTORY_SELECT;
+    }
+    
+    static String countSql(IssueFilter filter) {
+        return "SELECT COUNT(*) FROM " + (filter.isActiveOnly() ? "issues" : "issues_all") + " i " + filter.getWhereClause();
+    }
+    
+    static String issuesAtSql(IssueFilter filter) {
+        String where = filter.getWhereClause();
+        String seek = "(i.due_date, i.id) > (?, ?) ";
+        return (filter.isActiveOnly() ? DUE_ORDER_SELECT : HISTORY_SELECT) +
+            (where.isEmpty() ? "WHERE " + seek : where + "AND " + seek) +
+            "ORDER BY i.due_date ASC, i.id LIMIT ? OFFSET ?";
+    }
+    
+    static String issuesPageSql(boolean hasCursor, String status) {
+        // Active loans never reach the archive, so they need only the small table
+        StringBuilder sql = new StringBuilder("ISSUED".equals(status) ? ISSUE_SELECT : HISTORY_SELECT).append("WHERE 1=1");
+        if (hasCursor) {
+            sql.append(" AND i.id < ?");
+        }
+        if (status != null) {
+            sql.append(" AND i.status = ?");
+        }
+        if ("ISSUED".equals(status)) {
+            // Always true of an active loan, since a return sets both columns at once; it pins
+            // idx_issues_status to (status, NULL), whose rows are in id order, so no sort is needed
+            sql.append(" AND i.return_date IS NULL");
+        }
+        return sql.append(" ORDER BY i.id DESC LIMIT ?").toString();
+    }
+    
+    private Issue mapIssue(ResultSet rs) throws SQLException {
+        return mapIssue(rs, new Issue());
+    }
+    
+    private Issue mapIssue(ResultSet rs, Issue issue) throws SQLException {
+        issue.setId(rs.getInt("id"));
+        issue.setBookId(rs.getInt("book_id"));
+        issue.setMemberId(rs.getInt("member_id"));
+        // Dates are stored as epoch days (LocalDate.toEpochDay)
+        issue.setIssueDate(LocalDate.ofEpochDay(rs.getLong("issue_date")));
+        long returnDay = rs.getLong("return_date");
+        issue.setReturnDate(rs.wasNull() ? null : LocalDate.ofEpochDay(returnDay));
+        issue.setDueDate(LocalDate.ofEpochDay(rs.getLong("due_date")));
+        issue.setStatus(rs.getString("status"));
+        issue.setFineAmount(rs.getDouble("fine_amount"));
+        issue.setBookTitle(rs.getString("book_title"));
+        issue.setMemberName(rs.getString("member_name"));
+        issue.setMemberType(rs.getString("member_type"));
+        return issue;
+    }
 }
@@ -0,0 +1,24 @@
+public enum IssueFilter {
+    ALL("", false),
+    CURRENT("WHERE i.status = 'ISSUED' ", true),
+    OVERDUE("WHERE i.status = 'ISSUED' AND i.due_date < :today ", true),
+    RETURNED("WHERE i.status = 'RETURNED' ", false);
+
+    private final String whereClause;
+    private final boolean activeOnly;
+
+    IssueFilter(String whereClause, boolean activeOnly) {
+        this.whereClause = whereClause;
+        this.activeOnly = activeOnly;
+    }
+
+    // Active loans live only in issues; the other filters also need the archived history
+    public boolean isActiveOnly() {
+        return activeOnly;
+    }
+
+    // Dates are epoch days, so "today" is inlined as a plain integer literal
+    public String getWhereClause() {
+        return whereClause.replace(":today", String.valueOf(BusinessDate.todayEpochDay()));
+    }
+}
@@ -7,6 +7,8 @@ import java.awt.event.MouseEvent;
 import java.sql.*;
 
 public class Login extends JFrame {
+    // Shared with QueryPlanCheck, which explains exactly this string
+    static final String LOGIN_SQL = "SELECT * FROM users WHERE username=? AND password=?";
     private JTextField usernameField;
     private JPasswordField passwordField;
     
@@ -475,7 +477,7 @@ public class Login extends JFrame {
         }
 
         try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT * FROM users WHERE username=? AND password=?")) {
+             PreparedStatement stmt = conn.prepareStatement(LOGIN_SQL)) {
             stmt.setString(1, username);
             stmt.setString(2, password);
             ResultSet rs = stmt.executeQuery();
@@ -0,0 +1,98 @@
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Background housekeeping for the library database on one daemon thread, so jobs never
+// overlap each other. Each job borrows its own connection and queues its writes like any
+// other caller.
+public class MaintenanceScheduler {
+    private static final long INITIAL_DELAY_MILLIS = Long.getLong("library.maintenance.initialDelayMs", 60_000);
+    private static final long AVAILABILITY_CHECK_MILLIS = Long.getLong("library.maintenance.availabilityCheckMs", 60 * 60_000);
+    private static final long ARCHIVE_INTERVAL_MILLIS = Long.getLong("library.maintenance.archiveMs", 24 * 60 * 60_000);
+    // Returned loans older than this many days move to issues_archive
+    private static final int ARCHIVE_HORIZON_DAYS = Integer.getInteger("library.archive.horizonDays", 365);
+    // The overdue job also runs at start-up, to catch up on days the application was closed
+    private static final long OVERDUE_INITIAL_DELAY_MILLIS = Long.getLong("library.maintenance.overdueInitialDelayMs", 0);
+    // Runs a little after midnight so BusinessDate has certainly rolled over
+    private static final long ROLLOVER_SLACK_MILLIS = 1_000;
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "db-maintenance");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final AtomicBoolean started = new AtomicBoolean(false);
+
+    // Schedules the built-in jobs; later calls are no-ops
+    public static void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        schedule("availability check", MaintenanceScheduler::checkAvailability,
+                INITIAL_DELAY_MILLIS, AVAILABILITY_CHECK_MILLIS);
+        schedule("issue archival", MaintenanceScheduler::archiveReturnedIssues,
+                INITIAL_DELAY_MILLIS, ARCHIVE_INTERVAL_MILLIS);
+        scheduleAtRollover("overdue accrual", MaintenanceScheduler::accrueOverdueFines, OVERDUE_INITIAL_DELAY_MILLIS);
+    }
+
+    // A failing run is logged and the job stays scheduled for its next period
+    public static void schedule(String name, SqlCall<?> job, long initialDelayMillis, long periodMillis) {
+        executor.scheduleWithFixedDelay(() -> run(name, job), initialDelayMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Runs the job after the initial delay and then just after every local midnight. The next
+    // run is computed from the clock each time, so DST days and a suspended machine stay aligned.
+    public static void scheduleAtRollover(String name, SqlCall<?> job, long initialDelayMillis) {
+        executor.schedule(() -> {
+            run(name, job);
+            scheduleAtRollover(name, job, BusinessDate.millisUntilRollover() + ROLLOVER_SLACK_MILLIS);
+        }, initialDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static void run(String name, SqlCall<?> job) {
+        try {
+            job.call();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Maintenance job '" + name + "' failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // available_copies is kept by triggers; this catches drift from writes that bypassed them
+    // (manual edits, restores from an older copy) and puts the counter back
+    static List<Integer> checkAvailability() throws SQLException {
+        List<Integer> repaired = new BookDAO().repairAvailableCopies();
+        if (!repaired.isEmpty()) {
+            System.err.println("Warning: repaired available_copies for " + repaired.size() + " book(s): " + repaired);
+        }
+        return repaired;
+    }
+
+    // Keeps the hot issues table down to active loans and recent returns
+    static int archiveReturnedIssues() throws SQLException {
+        int moved = new IssueDAO().archiveReturnedBefore(BusinessDate.today().minusDays(ARCHIVE_HORIZON_DAYS));
+        if (moved > 0) {
+            System.out.println("Archived " + moved + " returned issue(s) older than " + ARCHIVE_HORIZON_DAYS + " days");
+        }
+        return moved;
+    }
+
+    // Marks newly overdue loans and stores each overdue loan's fine as of the business date,
+    // so the overdue views read stored fines instead of pricing every row
+    static OverdueAccrual accrueOverdueFines() throws SQLException {
+        LocalDate today = BusinessDate.today();
+        long start = System.nanoTime();
+        OverdueAccrual accrual = new IssueDAO().accrueOverdueFines(today, FinePolicy.recompile());
+        System.out.println("Overdue accrual for " + today + ": " + accrual + " in "
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+        return accrual;
+    }
+
+    public static void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -2,86 +2,120 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class MemberDAO {
     
+    // Statements shared with QueryPlanCheck, which explains exactly these strings
+    static final String ALL_MEMBERS_SQL = "SELECT * FROM members";
+    static final String MEMBER_BY_ID_SQL = "SELECT * FROM members WHERE id=?";
+    static final String ACTIVE_MEMBERS_SQL = "SELECT * FROM members WHERE status='ACTIVE' ORDER BY name";
+    static final String MEMBERS_AT_SQL = "SELECT * FROM members WHERE id > ? ORDER BY id LIMIT ? OFFSET ?";
+    static final String MEMBER_BY_EMAIL_SQL = "SELECT * FROM members WHERE email = ? COLLATE NOCASE LIMIT 1";
+    // Prefix ranges over the NOCASE name and email indexes; LIKE 'x%' could not use them
+    static final String MEMBERS_BY_NAME_PREFIX_SQL =
+        "SELECT * FROM members WHERE name >= ? COLLATE NOCASE AND name < ? COLLATE NOCASE ORDER BY name COLLATE NOCASE LIMIT ?";
+    static final String MEMBERS_BY_EMAIL_PREFIX_SQL =
+        "SELECT * FROM members WHERE email >= ? COLLATE NOCASE AND email < ? COLLATE NOCASE ORDER BY email COLLATE NOCASE LIMIT ?";
+    static final String UPDATE_MEMBER_SQL = "UPDATE members SET name=?, email=?, phone=?, address=?, member_type=?, status=? WHERE id=?";
+    static final String DELETE_MEMBER_SQL = "DELETE FROM members WHERE id=?";
+    
     public void addMember(Member member) throws SQLException {
         String sql = "INSERT INTO members(name, email, phone, address, member_type) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        int id = Database.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, member.getName());
+                ps.setString(2, member.getEmail());
+                ps.setString(3, member.getPhone());
+                ps.setString(4, member.getAddress());
+                ps.setString(5, member.getMemberType());
+                ps.executeUpdate();
+            }
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
+        member.setId(id);
+        EventBus.publish(new DomainEvent.MemberChanged(member.getId()));
+    }
+    
+    // Inserts all members in one transaction; see BatchResult for keys and per-row failures
+    public BatchResult addMembers(List<Member> members) throws SQLException {
+        return addMembers(members, BatchInsert.DEFAULT_CHUNK_SIZE);
+    }
+    
+    public BatchResult addMembers(List<Member> members, int chunkSize) throws SQLException {
+        String sql = "INSERT INTO members(name, email, phone, address, member_type) VALUES (?, ?, ?, ?, ?)";
+        BatchResult result = Database.write(conn -> BatchInsert.run(conn, sql, members, chunkSize, (ps, member) -> {
             ps.setString(1, member.getName());
             ps.setString(2, member.getEmail());
             ps.setString(3, member.getPhone());
             ps.setString(4, member.getAddress());
             ps.setString(5, member.getMemberType());
-            ps.executeUpdate();
+        }));
+        int[] keys = result.getGeneratedKeys();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] > 0) {
+                members.get(i).setId(keys[i]);
+                EventBus.publish(new DomainEvent.MemberChanged(keys[i]));
+            }
         }
+        return result;
     }
     
     public void updateMember(Member member) throws SQLException {
-        String sql = "UPDATE members SET name=?, email=?, phone=?, address=?, member_type=?, status=? WHERE id=?";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, member.getName());
-            ps.setString(2, member.getEmail());
-            ps.setString(3, member.getPhone());
-            ps.setString(4, member.getAddress());
-            ps.setString(5, member.getMemberType());
-            ps.setString(6, member.getStatus());
-            ps.setInt(7, member.getId());
-            ps.executeUpdate();
-        }
+        String sql = UPDATE_MEMBER_SQL;
+        Database.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, member.getName());
+                ps.setString(2, member.getEmail());
+                ps.setString(3, member.getPhone());
+                ps.setString(4, member.getAddress());
+                ps.setString(5, member.getMemberType());
+                ps.setString(6, member.getStatus());
+                ps.setInt(7, member.getId());
+                ps.executeUpdate();
+            }
+            return null;
+        });
+        EventBus.publish(new DomainEvent.MemberChanged(member.getId()));
     }
     
     public void deleteMember(int id) throws SQLException {
-        String sql = "DELETE FROM members WHERE id=?";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            ps.executeUpdate();
-        }
+        String sql = DELETE_MEMBER_SQL;
+        Database.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, id);
+                ps.executeUpdate();
+            }
+            return null;
+        });
+        EventBus.publish(new DomainEvent.MemberChanged(id));
     }
     
     public List<Member> getAllMembers() throws SQLException {
         List<Member> members = new ArrayList<>();
-        String sql = "SELECT * FROM members";
+        String sql = ALL_MEMBERS_SQL;
         try (Connection conn = Database.getConnection();
              Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(sql)) {
             while (rs.next()) {
-                Member member = new Member(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("address"),
-                    rs.getString("member_type"),
-                    rs.getString("join_date") != null ? LocalDate.parse(rs.getString("join_date")) : LocalDate.now(),
-                    rs.getString("status")
-                );
-                members.add(member);
+                members.add(mapMember(rs));
             }
         }
         return members;
     }
     
     public Member getMemberById(int id) throws SQLException {
-        String sql = "SELECT * FROM members WHERE id=?";
+        String sql = MEMBER_BY_ID_SQL;
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return new Member(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("phone"),
-                        rs.getString("address"),
-                        rs.getString("member_type"),
-                        rs.getString("join_date") != null ? LocalDate.parse(rs.getString("join_date")) : LocalDate.now(),
-                        rs.getString("status")
-                    );
+                    return mapMember(rs);
                 }
             }
         }
@@ -90,24 +124,179 @@ public class MemberDAO {
     
     public List<Member> getActiveMembers() throws SQLException {
         List<Member> members = new ArrayList<>();
-        String sql = "SELECT * FROM members WHERE status='ACTIVE' ORDER BY name";
+        String sql = ACTIVE_MEMBERS_SQL;
         try (Connection conn = Database.getConnection();
              Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(sql)) {
             while (rs.next()) {
-                Member member = new Member(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("address"),
-                    rs.getString("member_type"),
-                    rs.getString("join_date") != null ? LocalDate.parse(rs.getString("join_date")) : LocalDate.now(),
-                    rs.getString("status")
-                );
-                members.add(member);
+                members.add(mapMember(rs));
             }
         }
         return members;
     }
+    
+    // Keyset pagination: pass the id (and name when sorting by name) of the last row
+    // of the previous page, or null for the first page. Sorting by name is case-insensitive.
+    public Page<Member> getMembersPage(Integer afterId, String afterName, int pageSize,
+                                       boolean sortByName, boolean descending) throws SQLException {
+        boolean hasCursor = afterId != null && (!sortByName || afterName != null);
+        String sql = membersPageSql(sortByName, descending, hasCursor);
+        
+        List<Member> rows = new ArrayList<>(pageSize + 1);
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (hasCursor && sortByName) {
+                ps.setString(i++, afterName);
+                ps.setString(i++, afterName);
+            }
+            if (hasCursor) {
+                ps.setInt(i++, afterId);
+            }
+            ps.setInt(i, pageSize + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapMember(rs));
+                }
+            }
+        }
+        return Page.of(rows, pageSize);
+    }
+    
+    static String membersPageSql(boolean sortByName, boolean descending, boolean hasCursor) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM members");
+        String cmp = descending ? "<" : ">";
+        String dir = descending ? " DESC" : "";
+        if (sortByName) {
+            if (hasCursor) {
+                sql.append(" WHERE name ").append(cmp).append("= ? COLLATE NOCASE")
+                   .append(" AND (name ").append(cmp).append(" ? COLLATE NOCASE OR id ").append(cmp).append(" ?)");
+            }
+            sql.append(" ORDER BY name COLLATE NOCASE").append(dir).append(", id").append(dir);
+        } else {
+            if (hasCursor) {
+                sql.append(" WHERE id ").append(cmp).append(" ?");
+            }
+            sql.append(" ORDER BY id").append(dir);
+        }
+        return sql.append(" LIMIT ?").toString();
+    }
+    
+    // Slice in id order for table jumps: seeks past the anchor id by key (null starts from the
+    // first member) and then steps over skip rows, so OFFSET only covers the gap to the anchor
+    public List<Member> getMembersAt(Integer afterId, int skip, int limit) throws SQLException {
+        List<Member> members = new ArrayList<>(limit);
+        String sql = MEMBERS_AT_SQL;
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, afterId != null ? afterId : Long.MIN_VALUE);
+            ps.setInt(2, limit);
+            ps.setInt(3, skip);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    members.add(mapMember(rs));
+                }
+            }
+        }
+        return members;
+    }
+    
+    public int countMembers() throws SQLException {
+        try (Connection conn = Database.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM members")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    // Case-insensitive lookup used for the unique-email check before adding a member
+    public Member getMemberByEmail(String email) throws SQLException {
+        String sql = MEMBER_BY_EMAIL_SQL;
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, email);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return mapMember(rs);
+                }
+            }
+        }
+        return null;
+    }
+    
+    // Members whose name or email starts with the text, ignoring ASCII case; name matches come first.
+    // Used while SearchIndex is still loading, so it answers from the indexes rather than a scan.
+    public List<Member> searchByPrefix(String text, int limit) throws SQLException {
+        String prefix = text.trim();
+        List<Member> members = new ArrayList<>();
+        if (prefix.isEmpty() || limit <= 0) {
+            return members;
+        }
+        // U+10FFFF encodes as the largest UTF-8 sequence, so every string with the prefix sorts below this
+        String upper = prefix + "\uDBFF\uDFFF";
+        try (Connection conn = Database.getConnection()) {
+            for (String sql : new String[] { MEMBERS_BY_NAME_PREFIX_SQL, MEMBERS_BY_EMAIL_PREFIX_SQL }) {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, prefix);
+                    ps.setString(2, upper);
+                    ps.setInt(3, limit);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next() && members.size() < limit) {
+                            Member member = mapMember(rs);
+                            if (members.stream().noneMatch(m -> m.getId() == member.getId())) {
+                                members.add(member);
+                            }
+                        }
+                    }
+                }
+                if (members.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return members;
+    }
+    
+    public int streamMembers(Consumer<Member> consumer) throws SQLException {
+        return streamMembers(false, consumer);
+    }
+    
+    // Walks all members in id order over a forward-only cursor without building a list.
+    // With reuseRow one Member instance is refilled per row, so the consumer must copy what it keeps.
+    public int streamMembers(boolean reuseRow, Consumer<Member> consumer) throws SQLException {
+        String sql = "SELECT * FROM members ORDER BY id";
+        Member row = reuseRow ? new Member() : null;
+        int count = 0;
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = ResultSetStream.prepare(conn, sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                consumer.accept(mapMember(rs, reuseRow ? row : new Member()));
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    // Lazily mapped stream over the same cursor; must be closed by the caller
+    public Stream<Member> memberStream() throws SQLException {
+        return ResultSetStream.query("SELECT * FROM members ORDER BY id", rs -> mapMember(rs, new Member()));
+    }
+    
+    private Member mapMember(ResultSet rs) throws SQLException {
+        return mapMember(rs, new Member());
+    }
+    
+    private Member mapMember(ResultSet rs, Member member) throws SQLException {
+        String joinDate = rs.getString("join_date");
+        member.setId(rs.getInt("id"));
+        member.setName(rs.getString("name"));
+        member.setEmail(rs.getString("email"));
+        member.setPhone(rs.getString("phone"));
+        member.setAddress(rs.getString("address"));
+        member.setMemberType(rs.getString("member_type"));
+        member.setJoinDate(joinDate != null ? LocalDate.parse(joinDate) : LocalDate.now());
+        member.setStatus(rs.getString("status"));
+        return member;
+    }
 }
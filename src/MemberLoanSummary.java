@@ -0,0 +1,21 @@
+// One member's circulation state, read in a single query for the issue and delete checks
+public class MemberLoanSummary {
+    private final int memberId;
+    private final int activeLoans;
+    private final boolean holdsBook;
+    private final double outstandingFines;
+
+    public MemberLoanSummary(int memberId, int activeLoans, boolean holdsBook, double outstandingFines) {
+        this.memberId = memberId;
+        this.activeLoans = activeLoans;
+        this.holdsBook = holdsBook;
+        this.outstandingFines = outstandingFines;
+    }
+
+    // getters
+    public int getMemberId() { return memberId; }
+    public int getActiveLoans() { return activeLoans; }
+    public boolean holdsBook() { return holdsBook; }
+    public double getOutstandingFines() { return outstandingFines; }
+    public boolean hasOutstandingFines() { return outstandingFines > 0; }
+}
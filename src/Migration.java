@@ -0,0 +1,40 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class Migration {
+    private final int version;
+    private final String description;
+    private final List<String> statements;
+    private final long checksum;
+
+    public Migration(int version, String description, String... statements) {
+        this.version = version;
+        this.description = description;
+        this.statements = Collections.unmodifiableList(Arrays.asList(statements));
+        this.checksum = computeChecksum(this.statements);
+    }
+
+    // CRC32 over the SQL text, so editing an applied migration is detected at startup
+    private static long computeChecksum(List<String> statements) {
+        CRC32 crc = new CRC32();
+        for (String sql : statements) {
+            crc.update(sql.trim().getBytes(StandardCharsets.UTF_8));
+            crc.update('\n');
+        }
+        return crc.getValue();
+    }
+
+    // getters
+    public int getVersion() { return version; }
+    public String getDescription() { return description; }
+    public List<String> getStatements() { return statements; }
+    public long getChecksum() { return checksum; }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+}
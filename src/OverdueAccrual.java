@@ -0,0 +1,28 @@
+// What one run of the overdue job changed: loans it marked overdue for the first time,
+// loans whose stored fine moved, and loans no longer overdue after a due date change
+public class OverdueAccrual {
+    private final int newlyOverdue;
+    private final int finesUpdated;
+    private final int cleared;
+    private final double accrued;
+
+    public OverdueAccrual(int newlyOverdue, int finesUpdated, int cleared, double accrued) {
+        this.newlyOverdue = newlyOverdue;
+        this.finesUpdated = finesUpdated;
+        this.cleared = cleared;
+        this.accrued = accrued;
+    }
+
+    // getters
+    public int getNewlyOverdue() { return newlyOverdue; }
+    public int getFinesUpdated() { return finesUpdated; }
+    public int getCleared() { return cleared; }
+    public double getAccrued() { return accrued; } // net change in stored fines
+    public boolean isEmpty() { return newlyOverdue == 0 && finesUpdated == 0 && cleared == 0; }
+
+    @Override
+    public String toString() {
+        return newlyOverdue + " newly overdue, " + finesUpdated + " fine(s) updated, " + cleared + " cleared, Rs "
+            + String.format("%.2f", accrued) + " accrued";
+    }
+}
@@ -0,0 +1,28 @@
+import java.util.Collections;
+import java.util.List;
+
+// One window of a keyset-paginated query. The last item is the cursor for the next page.
+public class Page<T> {
+    private final List<T> items;
+    private final boolean hasMore;
+
+    public Page(List<T> items, boolean hasMore) {
+        this.items = Collections.unmodifiableList(items);
+        this.hasMore = hasMore;
+    }
+
+    // Builds a page from a query that fetched one row more than pageSize
+    public static <T> Page<T> of(List<T> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        return new Page<>(hasMore ? rows.subList(0, pageSize) : rows, hasMore);
+    }
+
+    public List<T> getItems() { return items; }
+    public boolean hasMore() { return hasMore; }
+    public boolean isEmpty() { return items.isEmpty(); }
+    public int size() { return items.size(); }
+
+    public T getLast() {
+        return items.isEmpty() ? null : items.get(items.size() - 1);
+    }
+}
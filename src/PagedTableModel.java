@@ -0,0 +1,330 @@
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Table model that only holds the pages around the viewport. The row count comes from a
+// COUNT query; getValueAt on a page that is not cached returns null and fetches it in the
+// background, together with the next page in the scroll direction. A bounded LRU of pages
+// keeps memory constant however many rows the source has. EDT only, like any TableModel.
+public class PagedTableModel<T> extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    public interface PageSource<T> {
+        int count() throws SQLException;
+
+        // Rows [offset, offset + limit). anchor is the last row of the nearest cached page
+        // before offset and skip the number of rows between it and offset (0 when that page
+        // is the one directly before), so sources can seek by key and only step over the gap.
+        // With no cached page before offset, anchor is null and skip equals offset.
+        List<T> fetch(int offset, int limit, T anchor, int skip) throws SQLException;
+    }
+
+    private static class CachedPage<T> {
+        final Object[][] rows;
+        final T last;
+
+        CachedPage(Object[][] rows, T last) {
+            this.rows = rows;
+            this.last = last;
+        }
+    }
+
+    private static class Snapshot<T> {
+        final int count;
+        final Map<Integer, CachedPage<T>> pages = new HashMap<>();
+
+        Snapshot(int count) {
+            this.count = count;
+        }
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = Integer.getInteger("library.table.pageSize", 200);
+    public static final int DEFAULT_MAX_PAGES = Integer.getInteger("library.table.maxPages", 16);
+
+    private final String[] columns;
+    private final int actionsColumn;
+    private final Function<T, Object[]> formatter;
+    private final int pageSize;
+    private final int maxPages;
+
+    private PageSource<T> source;
+    private int rowCount = 0;
+    private boolean counting = false;
+    private int generation = 0;
+    private int lastPage = 0;
+    private int direction = 1;
+    private boolean failed = false; // stop re-requesting on every paint until the next refresh
+    private Consumer<SQLException> errorHandler = Throwable::printStackTrace;
+    private final Set<Integer> pending = new HashSet<>();
+    private final List<CompletableFuture<?>> inFlight = new ArrayList<>();
+    private final LinkedHashMap<Integer, CachedPage<T>> pages;
+
+    public PagedTableModel(String[] columns, int actionsColumn, Function<T, Object[]> formatter) {
+        this(columns, actionsColumn, formatter, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    public PagedTableModel(String[] columns, int actionsColumn, Function<T, Object[]> formatter,
+                           int pageSize, int maxPages) {
+        this.columns = columns;
+        this.actionsColumn = actionsColumn;
+        this.formatter = formatter;
+        this.pageSize = Math.max(1, pageSize);
+        this.maxPages = Math.max(2, maxPages);
+        // Access-ordered, so the least recently viewed page is evicted first
+        this.pages = new LinkedHashMap<Integer, CachedPage<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedPage<T>> eldest) {
+                return size() > PagedTableModel.this.maxPages;
+            }
+        };
+    }
+
+    // Source over rows already in memory, e.g. search results
+    public static <T> PageSource<T> listSource(List<T> items) {
+        return new PageSource<T>() {
+            @Override
+            public int count() {
+                return items.size();
+            }
+
+            @Override
+            public List<T> fetch(int offset, int limit, T anchor, int skip) {
+                return items.subList(Math.min(offset, items.size()), Math.min(offset + limit, items.size()));
+            }
+        };
+    }
+
+    public void setErrorHandler(Consumer<SQLException> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    // Switches to a new source (or re-reads the current one) and recounts; cached pages are dropped
+    public void setSource(PageSource<T> source) {
+        this.source = source;
+        cancelPending();
+        pages.clear();
+        failed = false;
+        counting = true;
+        int gen = generation;
+        PageSource<T> src = source;
+        submit(src::count, count -> {
+            if (gen != generation) {
+                return;
+            }
+            counting = false;
+            rowCount = count;
+            fireTableDataChanged();
+        });
+    }
+
+    // Delta refresh: re-reads the count and only the pages currently cached, keeps showing
+    // the old rows meanwhile, then fires update events for the rows that actually changed
+    public void refresh() {
+        if (source == null) {
+            return;
+        }
+        cancelPending();
+        failed = false;
+        int gen = generation;
+        PageSource<T> src = source;
+        List<Integer> cached = new ArrayList<>(pages.keySet());
+        Collections.sort(cached);
+        submit(() -> {
+            Snapshot<T> snapshot = new Snapshot<>(src.count());
+            // Rows may have shifted, so old cursors are useless; re-read in order instead and
+            // seek each page from the last row of the page just re-read before it. Only the
+            // first cached page steps over the rows above it.
+            T anchor = null;
+            int anchorEnd = 0; // row just after the anchor
+            for (int pageIndex : cached) {
+                int offset = pageIndex * pageSize;
+                if (offset >= snapshot.count) {
+                    break;
+                }
+                CachedPage<T> page = loadPage(src, pageIndex, anchor, offset - anchorEnd);
+                snapshot.pages.put(pageIndex, page);
+                if (page.last != null && page.rows.length == pageSize) {
+                    anchor = page.last;
+                    anchorEnd = offset + pageSize;
+                }
+            }
+            return snapshot;
+        }, snapshot -> {
+            if (gen != generation) {
+                return;
+            }
+            Map<Integer, CachedPage<T>> old = new HashMap<>(pages);
+            pages.clear();
+            int oldCount = rowCount;
+            rowCount = snapshot.count;
+            if (rowCount < oldCount) {
+                fireTableRowsDeleted(rowCount, oldCount - 1);
+            } else if (rowCount > oldCount) {
+                fireTableRowsInserted(oldCount, rowCount - 1);
+            }
+            for (Map.Entry<Integer, CachedPage<T>> e : snapshot.pages.entrySet()) {
+                pages.put(e.getKey(), e.getValue());
+                fireChangedRows(e.getKey(), old.get(e.getKey()), e.getValue());
+            }
+        });
+    }
+
+    private void fireChangedRows(int pageIndex, CachedPage<T> before, CachedPage<T> after) {
+        int offset = pageIndex * pageSize;
+        int runStart = -1;
+        for (int i = 0; i < after.rows.length; i++) {
+            boolean changed = before == null || i >= before.rows.length || !Arrays.equals(before.rows[i], after.rows[i]);
+            if (changed && runStart < 0) {
+                runStart = i;
+            } else if (!changed && runStart >= 0) {
+                fireTableRowsUpdated(offset + runStart, offset + i - 1);
+                runStart = -1;
+            }
+        }
+        if (runStart >= 0) {
+            fireTableRowsUpdated(offset + runStart, offset + after.rows.length - 1);
+        }
+    }
+
+    // Drops every outstanding fetch; results that still arrive are ignored.
+    // Returns whether anything was in flight, i.e. whether the model may now be incomplete.
+    public boolean cancelPending() {
+        boolean hadWork = !inFlight.isEmpty();
+        generation++;
+        for (CompletableFuture<?> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+        pending.clear();
+        counting = false;
+        return hadWork;
+    }
+
+    // True until the first count arrives, so the table can show a loading placeholder
+    public boolean isLoading() {
+        return counting;
+    }
+
+    public boolean isRowLoaded(int row) {
+        return pages.containsKey(row / pageSize);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == actionsColumn;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / pageSize;
+        if (pageIndex != lastPage) {
+            direction = pageIndex > lastPage ? 1 : -1;
+            lastPage = pageIndex;
+        }
+        CachedPage<T> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+        // Prefetch ahead of the scroll so the next page is usually ready before it is painted
+        requestPage(pageIndex + direction);
+        int offset = row - pageIndex * pageSize;
+        return offset < page.rows.length ? page.rows[offset][column] : null;
+    }
+
+    private void requestPage(int pageIndex) {
+        if (source == null || failed || pageIndex < 0 || pageIndex * pageSize >= rowCount
+                || pages.containsKey(pageIndex) || !pending.add(pageIndex)) {
+            return;
+        }
+        int gen = generation;
+        PageSource<T> src = source;
+        int offset = pageIndex * pageSize;
+        T anchor = null;
+        int skip = offset;
+        // Only full pages are anchors: their last row sits exactly at the page boundary.
+        // Iterating leaves the LRU order alone, unlike get().
+        int anchorPage = -1;
+        for (Map.Entry<Integer, CachedPage<T>> e : pages.entrySet()) {
+            CachedPage<T> before = e.getValue();
+            int i = e.getKey();
+            if (i < pageIndex && i > anchorPage && before.last != null && before.rows.length == pageSize) {
+                anchorPage = i;
+                anchor = before.last;
+                skip = offset - (i + 1) * pageSize;
+            }
+        }
+        T seekFrom = anchor;
+        int gap = skip;
+        submit(() -> loadPage(src, pageIndex, seekFrom, gap), page -> {
+            if (gen != generation) {
+                return;
+            }
+            pending.remove(pageIndex);
+            pages.put(pageIndex, page);
+            int last = Math.min(rowCount, offset + pageSize) - 1;
+            if (last >= offset) {
+                fireTableRowsUpdated(offset, last);
+            }
+        });
+    }
+
+    // Runs on the loader thread; formatting happens there too, the EDT only stores the page
+    private CachedPage<T> loadPage(PageSource<T> src, int pageIndex, T anchor, int skip) throws SQLException {
+        List<T> items = src.fetch(pageIndex * pageSize, pageSize, anchor, skip);
+        Object[][] rows = new Object[items.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = formatter.apply(items.get(i));
+        }
+        return new CachedPage<>(rows, items.isEmpty() ? null : items.get(items.size() - 1));
+    }
+
+    private <R> void submit(SqlCall<R> call, Consumer<R> onResult) {
+        int gen = generation;
+        CompletableFuture<R> future = DaoExecutor.supply(call);
+        inFlight.add(future);
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            inFlight.remove(future);
+            if (gen != generation) {
+                return;
+            }
+            if (error == null) {
+                onResult.accept(result);
+            } else {
+                counting = false;
+                failed = true;
+                pending.clear();
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                errorHandler.accept(cause instanceof SQLException ? (SQLException) cause : new SQLException(cause));
+            }
+        }));
+    }
+}
@@ -0,0 +1,42 @@
+public class PoolConfig {
+    private int maxSize = 4;
+    private int minIdle = 1;
+    private long borrowTimeoutMillis = 10_000;
+    private long idleTimeoutMillis = 5 * 60_000;
+    private long validationIntervalMillis = 30_000;
+    private long leakThresholdMillis = 60_000;
+    private long housekeepingIntervalMillis = 30_000;
+
+    public PoolConfig() {}
+
+    // Reads overrides such as -Dlibrary.pool.size=8 from the command line
+    public static PoolConfig fromSystemProperties() {
+        PoolConfig config = new PoolConfig();
+        config.maxSize = Integer.getInteger("library.pool.size", config.maxSize);
+        config.minIdle = Integer.getInteger("library.pool.minIdle", config.minIdle);
+        config.borrowTimeoutMillis = Long.getLong("library.pool.borrowTimeoutMs", config.borrowTimeoutMillis);
+        config.idleTimeoutMillis = Long.getLong("library.pool.idleTimeoutMs", config.idleTimeoutMillis);
+        config.validationIntervalMillis = Long.getLong("library.pool.validationIntervalMs", config.validationIntervalMillis);
+        config.leakThresholdMillis = Long.getLong("library.pool.leakThresholdMs", config.leakThresholdMillis);
+        config.housekeepingIntervalMillis = Long.getLong("library.pool.housekeepingMs", config.housekeepingIntervalMillis);
+        if (config.maxSize < 1) config.maxSize = 1;
+        if (config.minIdle > config.maxSize) config.minIdle = config.maxSize;
+        return config;
+    }
+
+    // getters and setters
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+    public int getMinIdle() { return minIdle; }
+    public void setMinIdle(int minIdle) { this.minIdle = minIdle; }
+    public long getBorrowTimeoutMillis() { return borrowTimeoutMillis; }
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) { this.borrowTimeoutMillis = borrowTimeoutMillis; }
+    public long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) { this.idleTimeoutMillis = idleTimeoutMillis; }
+    public long getValidationIntervalMillis() { return validationIntervalMillis; }
+    public void setValidationIntervalMillis(long validationIntervalMillis) { this.validationIntervalMillis = validationIntervalMillis; }
+    public long getLeakThresholdMillis() { return leakThresholdMillis; }
+    public void setLeakThresholdMillis(long leakThresholdMillis) { this.leakThresholdMillis = leakThresholdMillis; }
+    public long getHousekeepingIntervalMillis() { return housekeepingIntervalMillis; }
+    public void setHousekeepingIntervalMillis(long housekeepingIntervalMillis) { this.housekeepingIntervalMillis = housekeepingIntervalMillis; }
+}
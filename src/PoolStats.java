@@ -0,0 +1,46 @@
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int maxSize;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long createdCount;
+    private final long evictedCount;
+    private final long leakCount;
+    private final double averageWaitMillis;
+    private final double maxWaitMillis;
+
+    public PoolStats(int active, int idle, int maxSize, long borrowCount, long timeoutCount,
+                     long createdCount, long evictedCount, long leakCount,
+                     double averageWaitMillis, double maxWaitMillis) {
+        this.active = active;
+        this.idle = idle;
+        this.maxSize = maxSize;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.createdCount = createdCount;
+        this.evictedCount = evictedCount;
+        this.leakCount = leakCount;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    // getters
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public int getMaxSize() { return maxSize; }
+    public long getBorrowCount() { return borrowCount; }
+    public long getTimeoutCount() { return timeoutCount; }
+    public long getCreatedCount() { return createdCount; }
+    public long getEvictedCount() { return evictedCount; }
+    public long getLeakCount() { return leakCount; }
+    public double getAverageWaitMillis() { return averageWaitMillis; }
+    public double getMaxWaitMillis() { return maxWaitMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d idle=%d max=%d borrows=%d timeouts=%d created=%d evicted=%d leaks=%d avgWait=%.3fms maxWait=%.3fms",
+                active, idle, maxSize, borrowCount, timeoutCount, createdCount, evictedCount, leakCount,
+                averageWaitMillis, maxWaitMillis);
+    }
+}
@@ -0,0 +1,72 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public enum PragmaProfile {
+    // Interactive circulation desk: readers never wait on writers, fsync only at checkpoints
+    DESK("desk", "WAL", "NORMAL", -16000, 64L * 1024 * 1024, "MEMORY", 5000),
+    // One-off imports: durability traded for throughput, large cache for index builds
+    BULK_LOAD("bulk-load", "WAL", "OFF", -65536, 256L * 1024 * 1024, "MEMORY", 30000),
+    // Every commit is fsynced, no memory mapping
+    DURABLE("durable", "WAL", "FULL", -8000, 0L, "DEFAULT", 10000);
+
+    private final String name;
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSize;      // negative values are KiB, positive values are pages
+    private final long mmapSize;
+    private final String tempStore;
+    private final int busyTimeoutMillis;
+
+    PragmaProfile(String name, String journalMode, String synchronous, int cacheSize,
+                  long mmapSize, String tempStore, int busyTimeoutMillis) {
+        this.name = name;
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+    }
+
+    // Selected with -Dlibrary.db.profile=desk|bulk-load|durable, defaults to desk
+    public static PragmaProfile fromSystemProperties() {
+        return byName(System.getProperty("library.db.profile", DESK.name));
+    }
+
+    public static PragmaProfile byName(String name) {
+        for (PragmaProfile profile : values()) {
+            if (profile.name.equalsIgnoreCase(name) || profile.name().equalsIgnoreCase(name)) {
+                return profile;
+            }
+        }
+        System.err.println("Warning: unknown PRAGMA profile '" + name + "', using " + DESK.name);
+        return DESK;
+    }
+
+    public void apply(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            // busy_timeout first so the journal_mode switch can wait out other connections
+            st.execute("PRAGMA busy_timeout = " + getBusyTimeoutMillis());
+            st.execute("PRAGMA journal_mode = " + journalMode);
+            st.execute("PRAGMA synchronous = " + synchronous);
+            st.execute("PRAGMA cache_size = " + cacheSize);
+            st.execute("PRAGMA mmap_size = " + mmapSize);
+            st.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    public String getProfileName() { return name; }
+    public String getJournalMode() { return journalMode; }
+    public String getSynchronous() { return synchronous; }
+    public int getCacheSize() { return cacheSize; }
+    public long getMmapSize() { return mmapSize; }
+    public String getTempStore() { return tempStore; }
+    // -Dlibrary.db.busyTimeoutMs overrides the profile's wait for another connection's lock
+    public int getBusyTimeoutMillis() { return Integer.getInteger("library.db.busyTimeoutMs", busyTimeoutMillis); }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
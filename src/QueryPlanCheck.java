@@ -0,0 +1,128 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Runs EXPLAIN QUERY PLAN over the DAO statements and fails when one of them
+// falls back to a full table scan, an unbounded index walk or a temporary sort. Usage: java -cp "classes;lib\sqlite-jdbc.jar" QueryPlanCheck
+public class QueryPlanCheck {
+
+    private static class Query {
+        final String name;
+        final String sql;
+        final boolean fullScanExpected; // listing every row is the point of the query
+        final Set<String> expected = new HashSet<>(); // plan lines accepted for this query alone
+
+        Query(String name, String sql, boolean fullScanExpected) {
+            this.name = name;
+            this.sql = sql;
+            this.fullScanExpected = fullScanExpected;
+        }
+
+        Query expect(String detail) {
+            expected.add(detail);
+            return this;
+        }
+    }
+
+    // The DAOs' own statements, so the check cannot drift from what actually runs
+    private static List<Query> queries() {
+        List<Query> queries = new ArrayList<>();
+        queries.add(new Query("BookDAO.getAllBooks", BookDAO.ALL_BOOKS_SQL, true));
+        queries.add(new Query("BookDAO.getBookById", BookDAO.BOOK_BY_ID_SQL, false));
+        queries.add(new Query("BookDAO.getBooksPage(title)", BookDAO.booksPageSql(true, false, true), false));
+        queries.add(new Query("BookDAO.getBooksPage(id)", BookDAO.booksPageSql(false, true, true), false));
+        queries.add(new Query("BookDAO.getBooksAt", BookDAO.BOOKS_AT_SQL, false));
+        queries.add(new Query("BookDAO.findByTitleAndAuthor", BookDAO.BY_TITLE_AND_AUTHOR_SQL, false));
+        // Ranking sorts only the MATCH hits, and bm25 has no index to walk
+        queries.add(new Query("BookDAO.search", BookDAO.SEARCH_SQL, false)
+                .expect("USE TEMP B-TREE FOR ORDER BY"));
+        queries.add(new Query("BookDAO.repairAvailableCopies", BookDAO.DRIFTED_AVAILABILITY_SQL, true));
+        queries.add(new Query("BookDAO.updateBook", BookDAO.UPDATE_BOOK_SQL, false));
+        queries.add(new Query("BookDAO.deleteBook", BookDAO.DELETE_BOOK_SQL, false));
+        queries.add(new Query("MemberDAO.getAllMembers", MemberDAO.ALL_MEMBERS_SQL, true));
+        queries.add(new Query("MemberDAO.getMemberById", MemberDAO.MEMBER_BY_ID_SQL, false));
+        queries.add(new Query("MemberDAO.getActiveMembers", MemberDAO.ACTIVE_MEMBERS_SQL, false));
+        queries.add(new Query("MemberDAO.getMembersPage(name)", MemberDAO.membersPageSql(true, false, true), false));
+        queries.add(new Query("MemberDAO.getMembersAt", MemberDAO.MEMBERS_AT_SQL, false));
+        queries.add(new Query("MemberDAO.getMemberByEmail", MemberDAO.MEMBER_BY_EMAIL_SQL, false));
+        queries.add(new Query("MemberDAO.searchByPrefix(name)", MemberDAO.MEMBERS_BY_NAME_PREFIX_SQL, false));
+        queries.add(new Query("MemberDAO.searchByPrefix(email)", MemberDAO.MEMBERS_BY_EMAIL_PREFIX_SQL, false));
+        queries.add(new Query("MemberDAO.updateMember", MemberDAO.UPDATE_MEMBER_SQL, false));
+        queries.add(new Query("MemberDAO.deleteMember", MemberDAO.DELETE_MEMBER_SQL, false));
+        queries.add(new Query("IssueDAO.getAllIssues", IssueDAO.ALL_ISSUES_SQL, true));
+        // The partial index holds exactly the active loans, all of which are the result
+        queries.add(new Query("IssueDAO.getCurrentIssues", IssueDAO.CURRENT_ISSUES_SQL, false)
+                .expect("SCAN i USING INDEX idx_issues_active_due"));
+        queries.add(new Query("IssueDAO.getOverdueIssues", IssueDAO.OVERDUE_ISSUES_SQL, false));
+        queries.add(new Query("IssueDAO.getIssuesPage", IssueDAO.issuesPageSql(true, null), false));
+        queries.add(new Query("IssueDAO.getIssuesPage(ISSUED)", IssueDAO.issuesPageSql(true, "ISSUED"), false));
+        // The archive is walked newest return first and the merge stops at the LIMIT
+        queries.add(new Query("IssueDAO.getRecentReturns", IssueDAO.RECENT_RETURNS_SQL, false)
+                .expect("SCAN issues_archive USING INDEX idx_issues_archive_returned"));
+        queries.add(new Query("IssueDAO.countIssues(CURRENT)", IssueDAO.countSql(IssueFilter.CURRENT), false));
+        queries.add(new Query("IssueDAO.countIssues(OVERDUE)", IssueDAO.countSql(IssueFilter.OVERDUE), false));
+        queries.add(new Query("IssueDAO.getIssuesAt(CURRENT)", IssueDAO.issuesAtSql(IssueFilter.CURRENT), false));
+        queries.add(new Query("IssueDAO.getIssuesAt(OVERDUE)", IssueDAO.issuesAtSql(IssueFilter.OVERDUE), false));
+        queries.add(new Query("IssueDAO.accrueOverdueFines(overdue)", IssueDAO.OVERDUE_LOANS_SQL, false));
+        queries.add(new Query("IssueDAO.accrueOverdueFines(stale)", IssueDAO.STALE_OVERDUE_SQL, false));
+        queries.add(new Query("IssueDAO.getIssueById", IssueDAO.ISSUE_BY_ID_SQL, false));
+        queries.add(new Query("IssueDAO.readIssue", IssueDAO.ACTIVE_ISSUE_BY_ID_SQL, false));
+        queries.add(new Query("IssueDAO.isBookAvailable", IssueDAO.AVAILABLE_COPIES_SQL, false));
+        queries.add(new Query("IssueDAO.getMemberLoanSummary", IssueDAO.LOAN_SUMMARY_SQL, false));
+        queries.add(new Query("IssueDAO.archiveReturnedBefore", IssueDAO.ARCHIVE_PICK_SQL, false));
+        queries.add(new Query("FineDAO.getBalance", FineDAO.BALANCE_SQL, false));
+        queries.add(new Query("FineDAO.getStatement", FineDAO.statementSql(true), false));
+        queries.add(new Query("CirculationService.renew", CirculationService.RENEW_SQL, false));
+        queries.add(new Query("CirculationService.returnBook", IssueDAO.RETURN_BOOK_SQL, false));
+        queries.add(new Query("Login", Login.LOGIN_SQL, false));
+        // Whole-table counts walk the smallest index; the loan counts must still be searches
+        queries.add(new Query("StatsDAO.getStats", StatsDAO.STATS_SQL, false)
+                .expect("SCAN books USING COVERING INDEX idx_books_title")
+                .expect("SCAN members USING COVERING INDEX idx_members_name")
+                .expect("SCAN members USING COVERING INDEX idx_members_email_nocase"));
+        return queries;
+    }
+
+    // Returns the offending plan lines, empty when every query uses an index range or key lookup
+    public static List<String> findFullScans(Connection conn) throws SQLException {
+        List<String> failures = new ArrayList<>();
+        for (Query query : queries()) {
+            try (PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + query.sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String detail = rs.getString("detail");
+                    // A range-constrained index lookup is reported as "SEARCH"; every "SCAN" reads a whole
+                    // table or index, except "SCAN x VIRTUAL TABLE INDEX n:M", an FTS lookup answered from
+                    // the full-text index, and "SCAN CONSTANT ROW", a SELECT without FROM.
+                    boolean fullScan = detail.startsWith("SCAN ") && !detail.contains(" VIRTUAL TABLE INDEX ")
+                            && !detail.equals("SCAN CONSTANT ROW");
+                    boolean tempSort = detail.startsWith("USE TEMP B-TREE");
+                    if ((fullScan || tempSort) && !query.fullScanExpected && !query.expected.contains(detail)) {
+                        failures.add(query.name + ": " + detail);
+                    }
+                }
+            }
+        }
+        return failures;
+    }
+
+    public static void main(String[] args) {
+        try (Connection conn = Database.getConnection()) {
+            List<String> failures = findFullScans(conn);
+            if (failures.isEmpty()) {
+                System.out.println("✅ All " + queries().size() + " DAO queries use index ranges or key lookups");
+                return;
+            }
+            System.out.println("❌ Full scans or temporary sorts found:");
+            for (String failure : failures) {
+                System.out.println("   " + failure);
+            }
+            System.exit(1);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
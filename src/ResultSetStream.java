@@ -0,0 +1,83 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Adapts an open forward-only cursor to a Stream. The stream owns the connection,
+// statement and result set, so callers must close it (try-with-resources).
+public class ResultSetStream {
+
+    // Rows SQLite hands back per fetch while streaming
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    public static PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(DEFAULT_FETCH_SIZE);
+        return ps;
+    }
+
+    // Borrows a connection and prepares the query; everything is released when the stream closes
+    public static <T> Stream<T> query(String sql, RowMapper<T> mapper) throws SQLException {
+        Connection conn = Database.getConnection();
+        PreparedStatement ps;
+        try {
+            ps = prepare(conn, sql);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return of(conn, ps, mapper);
+    }
+
+    public static <T> Stream<T> of(Connection conn, PreparedStatement ps, RowMapper<T> mapper) throws SQLException {
+        ResultSet rs;
+        try {
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(ps, conn);
+            throw e;
+        }
+
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error reading database cursor: " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            try {
+                rs.close();
+            } catch (SQLException ignored) {
+                // closing the statement and connection below still releases the cursor
+            }
+            closeQuietly(ps, conn);
+        });
+    }
+
+    private static void closeQuietly(PreparedStatement ps, Connection conn) {
+        try {
+            ps.close();
+        } catch (SQLException ignored) {
+            // nothing useful to do on close
+        }
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+            // nothing useful to do on close
+        }
+    }
+}
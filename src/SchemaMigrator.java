@@ -0,0 +1,339 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SchemaMigrator {
+
+    // Ordered schema history. Never edit an applied entry, append a new one instead.
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Baseline library schema",
+            "CREATE TABLE IF NOT EXISTS books (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "title TEXT NOT NULL," +
+                "author TEXT NOT NULL," +
+                "year INTEGER," +
+                "quantity INTEGER DEFAULT 0" +
+            ")",
+            "CREATE TABLE IF NOT EXISTS users (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "username TEXT UNIQUE NOT NULL," +
+                "password TEXT NOT NULL," +
+                "role TEXT DEFAULT 'ADMIN'" +
+            ")",
+            "CREATE TABLE IF NOT EXISTS members (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "name TEXT NOT NULL," +
+                "email TEXT UNIQUE NOT NULL," +
+                "phone TEXT," +
+                "address TEXT," +
+                "member_type TEXT DEFAULT 'STUDENT'," +
+                "join_date DATE DEFAULT CURRENT_DATE," +
+                "status TEXT DEFAULT 'ACTIVE'" +
+            ")",
+            "CREATE TABLE IF NOT EXISTS issues (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "book_id INTEGER NOT NULL," +
+                "member_id INTEGER NOT NULL," +
+                "issue_date DATE DEFAULT CURRENT_DATE," +
+                "return_date DATE," +
+                "due_date DATE NOT NULL," +
+                "status TEXT DEFAULT 'ISSUED'," +
+                "fine_amount REAL DEFAULT 0.0," +
+                "FOREIGN KEY (book_id) REFERENCES books(id)," +
+                "FOREIGN KEY (member_id) REFERENCES members(id)" +
+            ")",
+            "INSERT INTO users (username, password, role) " +
+                "SELECT 'admin', 'admin', 'ADMIN' " +
+                "WHERE NOT EXISTS (SELECT 1 FROM users WHERE username = 'admin')"
+        ),
+        new Migration(2, "Secondary indexes for circulation and member lookups",
+            // Active loans only: current/overdue lists filter on status and sort on due_date
+            "CREATE INDEX IF NOT EXISTS idx_issues_active_due ON issues(due_date) WHERE status = 'ISSUED'",
+            // Availability check counts active loans per book
+            "CREATE INDEX IF NOT EXISTS idx_issues_active_book ON issues(book_id) WHERE status = 'ISSUED'",
+            "CREATE INDEX IF NOT EXISTS idx_issues_member_status ON issues(member_id, status)",
+            "CREATE INDEX IF NOT EXISTS idx_members_status_name ON members(status, name)",
+            "ANALYZE"
+        ),
+        new Migration(3, "Keyset pagination and case-insensitive lookup indexes",
+            // The implicit rowid suffix makes these usable for (title, id) / (name, id) cursors
+            "CREATE INDEX IF NOT EXISTS idx_books_title ON books(title COLLATE NOCASE)",
+            "CREATE INDEX IF NOT EXISTS idx_members_name ON members(name COLLATE NOCASE)",
+            "CREATE INDEX IF NOT EXISTS idx_members_email_nocase ON members(email COLLATE NOCASE)"
+        ),
+        new Migration(4, "Full-text catalog search",
+            // External-content table: the index lives in books_fts, the text stays in books
+            "CREATE VIRTUAL TABLE IF NOT EXISTS books_fts USING fts5(" +
+                "title, author, year, content='books', content_rowid='id', " +
+                "tokenize='unicode61 remove_diacritics 2', prefix='2 3')",
+            "CREATE TRIGGER IF NOT EXISTS books_fts_ai AFTER INSERT ON books BEGIN " +
+                "INSERT INTO books_fts(rowid, title, author, year) VALUES (new.id, new.title, new.author, new.year); " +
+            "END",
+            "CREATE TRIGGER IF NOT EXISTS books_fts_ad AFTER DELETE ON books BEGIN " +
+                "INSERT INTO books_fts(books_fts, rowid, title, author, year) VALUES ('delete', old.id, old.title, old.author, old.year); " +
+            "END",
+            // Quantity changes on every issue/return, so only re-index when searchable columns change
+            "CREATE TRIGGER IF NOT EXISTS books_fts_au AFTER UPDATE OF title, author, year ON books BEGIN " +
+                "INSERT INTO books_fts(books_fts, rowid, title, author, year) VALUES ('delete', old.id, old.title, old.author, old.year); " +
+                "INSERT INTO books_fts(rowid, title, author, year) VALUES (new.id, new.title, new.author, new.year); " +
+            "END",
+            "INSERT INTO books_fts(books_fts) VALUES ('rebuild')"
+        ),
+        new Migration(5, "Covering index for per-member circulation checks",
+            // Loan count, held book and fine total for one member come straight from the index;
+            // it has the same (member_id, status) prefix, so the narrower index is redundant
+            "CREATE INDEX IF NOT EXISTS idx_issues_member_loans ON issues(member_id, status, book_id, fine_amount)",
+            "DROP INDEX IF EXISTS idx_issues_member_status",
+            "ANALYZE"
+        ),
+        new Migration(6, "Maintained available_copies counter",
+            "ALTER TABLE books ADD COLUMN available_copies INTEGER NOT NULL DEFAULT 0",
+            "UPDATE books SET available_copies = quantity - " +
+                "(SELECT COUNT(*) FROM issues WHERE issues.book_id = books.id AND issues.status = 'ISSUED')",
+            // Kept in the same transaction as the change that moves it, whichever code path writes
+            "CREATE TRIGGER IF NOT EXISTS books_avail_ai AFTER INSERT ON books BEGIN " +
+                "UPDATE books SET available_copies = new.quantity WHERE id = new.id; " +
+            "END",
+            "CREATE TRIGGER IF NOT EXISTS books_avail_au AFTER UPDATE OF quantity ON books " +
+                "WHEN new.quantity IS NOT old.quantity BEGIN " +
+                "UPDATE books SET available_copies = available_copies + (new.quantity - old.quantity) WHERE id = new.id; " +
+            "END",
+            "CREATE TRIGGER IF NOT EXISTS issues_avail_ai AFTER INSERT ON issues WHEN new.status = 'ISSUED' BEGIN " +
+                "UPDATE books SET available_copies = available_copies - 1 WHERE id = new.book_id; " +
+            "END",
+            "CREATE TRIGGER IF NOT EXISTS issues_avail_au AFTER UPDATE OF status, book_id ON issues " +
+                "WHEN new.status IS NOT old.status OR new.book_id <> old.book_id BEGIN " +
+                "UPDATE books SET available_copies = available_copies + 1 WHERE id = old.book_id AND old.status = 'ISSUED'; " +
+                "UPDATE books SET available_copies = available_copies - 1 WHERE id = new.book_id AND new.status = 'ISSUED'; " +
+            "END",
+            "CREATE TRIGGER IF NOT EXISTS issues_avail_ad AFTER DELETE ON issues WHEN old.status = 'ISSUED' BEGIN " +
+                "UPDATE books SET available_copies = available_copies + 1 WHERE id = old.book_id; " +
+            "END"
+        ),
+        new Migration(7, "Issue dates as integer epoch days",
+            // Column types cannot change in place, so the table is rebuilt and its
+            // indexes and triggers (dropped with it) are created again
+            "CREATE TABLE issues_new (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "book_id INTEGER NOT NULL," +
+                "member_id INTEGER NOT NULL," +
+                "issue_date INTEGER NOT NULL DEFAULT (" + todayEpochDay() + ")," +
+                "return_date INTEGER," +
+                "due_date INTEGER NOT NULL," +
+                "status TEXT DEFAULT 'ISSUED'," +
+                "fine_amount REAL DEFAULT 0.0," +
+                "FOREIGN KEY (book_id) REFERENCES books(id)," +
+                "FOREIGN KEY (member_id) REFERENCES members(id)" +
+            ")",
+            // Unparseable dates fall back the way the old row mapper did: issued today, due 14 days later
+            "INSERT INTO issues_new (id, book_id, member_id, issue_date, return_date, due_date, status, fine_amount) " +
+                "SELECT id, book_id, member_id, " +
+                "COALESCE(" + epochDay("issue_date") + ", " + todayEpochDay() + "), " +
+                epochDay("return_date") + ", " +
+                "COALESCE(" + epochDay("due_date") + ", " + todayEpochDay() + " + 14), " +
+                "status, fine_amount FROM issues",
+            "DROP TABLE issues",
+            "ALTER TABLE issues_new RENAME TO issues",
+            "CREATE INDEX IF NOT EXISTS idx_issues_active_due ON issues(due_date) WHERE status = 'ISSUED'",
+            "CREATE INDEX IF NOT EXISTS idx_issues_active_book ON issues(book_id) WHERE status = 'ISSUED'",
+            "CREATE INDEX IF NOT EXISTS idx_issues_member_loans ON issues(member_id, status, book_id, fine_amount)",
+            "CREATE TRIGGER IF NOT EXISTS issues_avail_ai AFTER INSERT ON issues WHEN new.status = 'ISSUED' BEGIN " +
+                "UPDATE books SET available_copies = available_copies - 1 WHERE id = new.book_id; " +
+            "END",
+            "CREATE TRIGGER IF NOT EXISTS issues_avail_au AFTER UPDATE OF status, book_id ON issues " +
+                "WHEN new.status IS NOT old.status OR new.book_id <> old.book_id BEGIN " +
+                "UPDATE books SET available_copies = available_copies + 1 WHERE id = old.book_id AND old.status = 'ISSUED'; " +
+                "UPDATE books SET available_copies = available_copies - 1 WHERE id = new.book_id AND new.status = 'ISSUED'; " +
+            "END",
+            "CREATE TRIGGER IF NOT EXISTS issues_avail_ad AFTER DELETE ON issues WHEN old.status = 'ISSUED' BEGIN " +
+                "UPDATE books SET available_copies = available_copies + 1 WHERE id = old.book_id; " +
+            "END",
+            "ANALYZE"
+        ),
+        new Migration(8, "Recent returns index for the activity feed",
+            // Walked backwards for ORDER BY return_date DESC, id DESC; id is the implicit suffix
+            "CREATE INDEX IF NOT EXISTS idx_issues_returned ON issues(return_date) WHERE status = 'RETURNED'"
+        ),
+        new Migration(9, "Archive table for old returned issues",
+            // Same columns as issues; ids are carried over, so no AUTOINCREMENT here
+            "CREATE TABLE IF NOT EXISTS issues_archive (" +
+                "id INTEGER PRIMARY KEY," +
+                "book_id INTEGER NOT NULL," +
+                "member_id INTEGER NOT NULL," +
+                "issue_date INTEGER NOT NULL," +
+                "return_date INTEGER," +
+                "due_date INTEGER NOT NULL," +
+                "status TEXT DEFAULT 'RETURNED'," +
+                "fine_amount REAL DEFAULT 0.0" +
+            ")",
+            "CREATE INDEX IF NOT EXISTS idx_issues_archive_returned ON issues_archive(return_date)",
+            "CREATE INDEX IF NOT EXISTS idx_issues_archive_member_fines ON issues_archive(member_id, fine_amount) WHERE fine_amount > 0",
+            // Full-history reads go through the view; id-ordered and return-ordered scans merge both sides
+            "CREATE VIEW IF NOT EXISTS issues_all AS " +
+                "SELECT id, book_id, member_id, issue_date, return_date, due_date, status, fine_amount FROM issues " +
+                "UNION ALL " +
+                "SELECT id, book_id, member_id, issue_date, return_date, due_date, status, fine_amount FROM issues_archive"
+        ),
+        new Migration(10, "Fine ledger and per-member balances",
+            // Append-only: charges are positive, payments negative, so a balance is the running sum
+            "CREATE TABLE IF NOT EXISTS fine_ledger (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "member_id INTEGER NOT NULL," +
+                "issue_id INTEGER," +
+                "entry_date INTEGER NOT NULL," +
+                "kind TEXT NOT NULL," +
+                "amount REAL NOT NULL," +
+                "note TEXT," +
+                "FOREIGN KEY (member_id) REFERENCES members(id)" +
+            ")",
+            // Statement pages walk (entry_date, id) backwards; id is the implicit suffix
+            "CREATE INDEX IF NOT EXISTS idx_fine_ledger_member_date ON fine_ledger(member_id, entry_date)",
+            "CREATE TABLE IF NOT EXISTS member_balance (" +
+                "member_id INTEGER PRIMARY KEY," +
+                "balance REAL NOT NULL DEFAULT 0.0" +
+            ")",
+            "CREATE TRIGGER IF NOT EXISTS fine_ledger_ai AFTER INSERT ON fine_ledger BEGIN " +
+                "INSERT INTO member_balance (member_id, balance) VALUES (new.member_id, new.amount) " +
+                "ON CONFLICT(member_id) DO UPDATE SET balance = balance + excluded.balance; " +
+            "END",
+            // Any write that sets or changes an issue's fine posts the difference to the ledger
+            "CREATE TRIGGER IF NOT EXISTS issues_fine_ai AFTER INSERT ON issues WHEN new.fine_amount > 0 BEGIN " +
+                "INSERT INTO fine_ledger (member_id, issue_id, entry_date, kind, amount, note) " +
+                "VALUES (new.member_id, new.id, COALESCE(new.return_date, " + todayEpochDay() + "), 'CHARGE', new.fine_amount, 'Overdue fine'); " +
+            "END",
+            "CREATE TRIGGER IF NOT EXISTS issues_fine_au AFTER UPDATE OF fine_amount ON issues " +
+                "WHEN new.fine_amount IS NOT old.fine_amount BEGIN " +
+                "INSERT INTO fine_ledger (member_id, issue_id, entry_date, kind, amount, note) " +
+                "VALUES (new.member_id, new.id, COALESCE(new.return_date, " + todayEpochDay() + "), " +
+                "CASE WHEN new.fine_amount > COALESCE(old.fine_amount, 0) THEN 'CHARGE' ELSE 'ADJUSTMENT' END, " +
+                "new.fine_amount - COALESCE(old.fine_amount, 0), 'Overdue fine'); " +
+            "END",
+            // Fines charged before the ledger existed; nothing was ever recorded as paid
+            "INSERT INTO fine_ledger (member_id, issue_id, entry_date, kind, amount, note) " +
+                "SELECT member_id, id, COALESCE(return_date, due_date), 'CHARGE', fine_amount, 'Overdue fine' " +
+                "FROM issues_all WHERE fine_amount > 0 ORDER BY id",
+            // Outstanding fines are read from member_balance now
+            "DROP INDEX IF EXISTS idx_issues_archive_member_fines"
+        ),
+        new Migration(11, "Overdue marker for the nightly accrual job",
+            // Epoch day the job first found the loan overdue; NULL while it is not
+            "ALTER TABLE issues ADD COLUMN overdue_since INTEGER",
+            // Finds marked loans whose due date moved back into the future
+            "CREATE INDEX IF NOT EXISTS idx_issues_overdue_marked ON issues(due_date) " +
+                "WHERE status = 'ISSUED' AND overdue_since IS NOT NULL"
+        ),
+        new Migration(12, "Status index for the circulation table counts",
+            // COUNT(*) per status is a range search on this index instead of a walk of
+            // idx_issues_member_loans, whichever way the statistics lean
+            "CREATE INDEX IF NOT EXISTS idx_issues_status ON issues(status, return_date)",
+            "ANALYZE"
+        )
+    );
+
+    // Day number since 1970-01-01 (LocalDate.toEpochDay) of a legacy DATE value: epoch millis
+    // from PreparedStatement.setDate, or an ISO yyyy-MM-dd string. Millis are local midnights.
+    private static String epochDay(String column) {
+        return "CASE WHEN " + column + " IS NULL OR " + column + " = '' THEN NULL " +
+               "WHEN typeof(" + column + ") IN ('integer', 'real') OR " + column + " NOT GLOB '*[^0-9]*' " +
+               "THEN CAST(julianday(" + column + " / 1000, 'unixepoch', 'localtime') - 2440587.5 AS INTEGER) " +
+               "ELSE CAST(julianday(" + column + ") - 2440587.5 AS INTEGER) END";
+    }
+
+    private static String todayEpochDay() {
+        return "CAST(julianday('now', 'localtime') - 2440587.5 AS INTEGER)";
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+    }
+
+    public static void migrate(Connection conn) throws SQLException {
+        // Fast path: a warm database already at the latest version needs no DDL at all, but an
+        // edited migration must still be caught; that check is one small SELECT
+        int current = readUserVersion(conn);
+        if (current == latestVersion()) {
+            verifyChecksums(readAppliedChecksums(conn));
+            return;
+        }
+        if (current > latestVersion()) {
+            throw new SQLException("Database schema version " + current +
+                    " is newer than this application supports (" + latestVersion() + ")");
+        }
+
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                       "version INTEGER PRIMARY KEY," +
+                       "description TEXT NOT NULL," +
+                       "checksum INTEGER NOT NULL," +
+                       "applied_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                       ")");
+        }
+
+        Map<Integer, Long> applied = readAppliedChecksums(conn);
+        verifyChecksums(applied);
+
+        for (Migration migration : MIGRATIONS) {
+            if (!applied.containsKey(migration.getVersion())) {
+                apply(conn, migration);
+            }
+        }
+    }
+
+    private static int readUserVersion(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static Map<Integer, Long> readAppliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private static void verifyChecksums(Map<Integer, Long> applied) throws SQLException {
+        List<String> mismatches = new ArrayList<>();
+        for (Migration migration : MIGRATIONS) {
+            Long recorded = applied.get(migration.getVersion());
+            if (recorded != null && recorded != migration.getChecksum()) {
+                mismatches.add(migration.toString());
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            throw new SQLException("Applied migrations were modified after they ran: " + mismatches);
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        try (Statement st = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            for (String sql : migration.getStatements()) {
+                st.execute(sql);
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description, checksum) VALUES (?, ?, ?)")) {
+                ps.setInt(1, migration.getVersion());
+                ps.setString(2, migration.getDescription());
+                ps.setLong(3, migration.getChecksum());
+                ps.executeUpdate();
+            }
+            st.execute("PRAGMA user_version = " + migration.getVersion());
+            conn.commit();
+            System.out.println("Applied schema migration " + migration);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Schema migration " + migration + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+}
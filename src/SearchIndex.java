@@ -0,0 +1,110 @@
+import java.sql.SQLException;
+
+// Process-wide search-as-you-type indexes over the catalog and the member list.
+// Built from the DAOs on first use and kept current from BookChanged/MemberChanged events.
+public class SearchIndex {
+    private static final TrigramIndex<Book> books = new TrigramIndex<>(Book::getId,
+        b -> new String[] { b.getTitle(), b.getAuthor(), String.valueOf(b.getYear()) });
+    private static final TrigramIndex<Member> members = new TrigramIndex<>(Member::getId,
+        m -> new String[] { m.getName(), m.getEmail(), m.getPhone(), m.getAddress() });
+    private static volatile boolean loaded = false;
+
+    public static TrigramIndex<Book> books() throws SQLException {
+        ensureLoaded();
+        return books;
+    }
+
+    public static TrigramIndex<Member> members() throws SQLException {
+        ensureLoaded();
+        return members;
+    }
+
+    // False until the first build finishes; callers that must not wait for it can fall back
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    // Builds the indexes in the background so the first keystroke does not pay for it
+    public static void warmUpAsync() {
+        Thread t = new Thread(() -> {
+            try {
+                ensureLoaded();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }, "search-index-loader");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public static synchronized void ensureLoaded() throws SQLException {
+        if (loaded) {
+            return;
+        }
+        long start = System.nanoTime();
+        books.rebuild(sink -> new BookDAO().streamBooks(sink));
+        members.rebuild(sink -> new MemberDAO().streamMembers(sink));
+        loaded = true;
+        System.out.println("Search index built: " + books.size() + " books, " + members.size() + " members in "
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+    }
+
+    // Large bursts (bulk imports) are cheaper to rebuild than to apply one lookup at a time
+    private static final int REBUILD_THRESHOLD = 1000;
+
+    static {
+        EventBus.subscribe(DomainEvent.BookChanged.class, batch -> {
+            // Re-read rather than trust the event; if a load is running, put() waits for it
+            try {
+                if (batch.size() > REBUILD_THRESHOLD) {
+                    books.rebuild(sink -> new BookDAO().streamBooks(sink));
+                    return;
+                }
+                BookDAO bookDAO = new BookDAO();
+                for (DomainEvent.BookChanged event : batch) {
+                    Book book = bookDAO.getBookById(event.getBookId());
+                    if (book != null) {
+                        books.put(book);
+                    } else {
+                        books.remove(event.getBookId());
+                    }
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+        EventBus.subscribe(DomainEvent.MemberChanged.class, batch -> {
+            try {
+                if (batch.size() > REBUILD_THRESHOLD) {
+                    members.rebuild(sink -> new MemberDAO().streamMembers(sink));
+                    return;
+                }
+                MemberDAO memberDAO = new MemberDAO();
+                for (DomainEvent.MemberChanged event : batch) {
+                    Member member = memberDAO.getMemberById(event.getMemberId());
+                    if (member != null) {
+                        members.put(member);
+                    } else {
+                        members.remove(event.getMemberId());
+                    }
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+        EventBus.subscribe(DomainEvent.Resync.class, batch -> {
+            try {
+                reload();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private static synchronized void reload() throws SQLException {
+        if (loaded) {
+            loaded = false;
+            ensureLoaded();
+        }
+    }
+}
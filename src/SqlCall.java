@@ -0,0 +1,6 @@
+import java.sql.SQLException;
+
+// A DAO call that borrows its own connection, run off the calling thread by DaoExecutor
+public interface SqlCall<T> {
+    T call() throws SQLException;
+}
@@ -0,0 +1,7 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// A unit of database work that runs against a connection it is handed
+public interface SqlWork<T> {
+    T run(Connection conn) throws SQLException;
+}
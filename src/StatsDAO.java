@@ -0,0 +1,60 @@
+import java.sql.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StatsDAO {
+    // Shared with QueryPlanCheck, which explains exactly this string
+    static final String STATS_SQL = "SELECT " +
+            "(SELECT COUNT(*) FROM books) AS total_books, " +
+            "(SELECT COUNT(*) FROM members) AS total_members, " +
+            "(SELECT COUNT(*) FROM issues WHERE status = 'ISSUED') AS current_issues, " +
+            "(SELECT COUNT(*) FROM issues WHERE status = 'ISSUED' AND due_date < ?) AS overdue_issues";
+
+    private static final long TTL_MILLIS = Long.getLong("library.stats.ttlMs", 5000);
+
+    private static volatile DashboardStats cached;
+    private static volatile long cachedAt;
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private static final AtomicLong generation = new AtomicLong();
+
+    static {
+        // Any committed write may change a counter
+        Database.onCommit(StatsDAO::invalidate);
+    }
+
+    public static void invalidate() {
+        generation.incrementAndGet();
+        cached = null;
+    }
+
+    // All dashboard counters in one round trip, served from a short-lived cache
+    public DashboardStats getStats() throws SQLException {
+        DashboardStats stats = cached;
+        if (stats != null && System.currentTimeMillis() - cachedAt < TTL_MILLIS) {
+            return stats;
+        }
+        long gen = generation.get();
+        stats = loadStats();
+        if (generation.get() == gen) {
+            cached = stats;
+            cachedAt = System.currentTimeMillis();
+        }
+        return stats;
+    }
+
+    private DashboardStats loadStats() throws SQLException {
+        String sql = STATS_SQL;
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, BusinessDate.todayEpochDay());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return new DashboardStats(
+                    rs.getInt("total_books"),
+                    rs.getInt("total_members"),
+                    rs.getInt("current_issues"),
+                    rs.getInt("overdue_issues")
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// In-memory substring index: every 3-character window of the indexed text maps to a
+// sorted int[] of ids. A query intersects the posting lists of its own trigrams and
+// then confirms each candidate with indexOf, so results match a plain contains().
+public class TrigramIndex<T> {
+
+    public interface Loader<T> {
+        void load(Consumer<T> sink) throws SQLException;
+    }
+
+    private final ToIntFunction<T> idOf;
+    private final Function<T, String[]> fieldsOf;
+    private final Map<Integer, Entry<T>> entries = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static class Entry<T> {
+        final T item;
+        final String text; // lower-cased fields joined with '\n'
+
+        Entry(T item, String text) {
+            this.item = item;
+            this.text = text;
+        }
+    }
+
+    // Sorted, duplicate-free ids backed by a primitive array
+    private static class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+                size--;
+            }
+        }
+    }
+
+    public TrigramIndex(ToIntFunction<T> idOf, Function<T, String[]> fieldsOf) {
+        this.idOf = idOf;
+        this.fieldsOf = fieldsOf;
+    }
+
+    // Replaces the whole index. Writers wait until the load finishes, so an update
+    // committed while the loader was reading is applied on top of it, never lost.
+    public void rebuild(Loader<T> loader) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.clear();
+            loader.load(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(T item) {
+        int id = idOf.applyAsInt(item);
+        String text = normalize(String.join("\n", nonNull(fieldsOf.apply(item))));
+        lock.writeLock().lock();
+        try {
+            Entry<T> old = entries.put(id, new Entry<>(item, text));
+            if (old != null) {
+                for (long gram : trigrams(old.text)) {
+                    Postings list = postings.get(gram);
+                    if (list != null) {
+                        list.remove(id);
+                        if (list.size == 0) {
+                            postings.remove(gram);
+                        }
+                    }
+                }
+            }
+            for (long gram : trigrams(text)) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            Entry<T> old = entries.remove(id);
+            if (old == null) {
+                return;
+            }
+            for (long gram : trigrams(old.text)) {
+                Postings list = postings.get(gram);
+                if (list != null) {
+                    list.remove(id);
+                    if (list.size == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public T get(int id) {
+        lock.readLock().lock();
+        try {
+            Entry<T> entry = entries.get(id);
+            return entry != null ? entry.item : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Items whose text contains the query (case-insensitive), earliest match first:
+    // a hit in the first field outranks one in a later field
+    public List<T> search(String query, int limit) {
+        String q = normalize(query == null ? "" : query.trim());
+        List<T> results = new ArrayList<>();
+        if (q.isEmpty() || limit <= 0) {
+            return results;
+        }
+        lock.readLock().lock();
+        try {
+            List<long[]> hits = new ArrayList<>(); // {match position, id}
+            if (q.length() < 3) {
+                // Too short for a trigram; the entry map is small enough to check directly
+                for (Map.Entry<Integer, Entry<T>> e : entries.entrySet()) {
+                    int pos = e.getValue().text.indexOf(q);
+                    if (pos >= 0) {
+                        hits.add(new long[] { pos, e.getKey() });
+                    }
+                }
+            } else {
+                int[] candidates = candidates(q);
+                for (int id : candidates) {
+                    int pos = entries.get(id).text.indexOf(q);
+                    if (pos >= 0) {
+                        hits.add(new long[] { pos, id });
+                    }
+                }
+            }
+            hits.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            for (int i = 0; i < hits.size() && i < limit; i++) {
+                results.add(entries.get((int) hits.get(i)[1]).item);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Intersection of the query's posting lists, smallest list first
+    private int[] candidates(String q) {
+        List<Postings> lists = new ArrayList<>();
+        for (long gram : trigrams(q)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int n = result.length;
+        for (int i = 1; i < lists.size() && n > 0; i++) {
+            Postings other = lists.get(i);
+            int kept = 0;
+            int j = 0;
+            for (int k = 0; k < n; k++) {
+                int id = result[k];
+                while (j < other.size && other.ids[j] < id) {
+                    j++;
+                }
+                if (j < other.size && other.ids[j] == id) {
+                    result[kept++] = id;
+                }
+            }
+            n = kept;
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            char a = text.charAt(i), b = text.charAt(i + 1), c = text.charAt(i + 2);
+            if (a == '\n' || b == '\n' || c == '\n') {
+                continue; // never span two fields
+            }
+            grams.add(((long) a << 32) | ((long) b << 16) | c);
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static String[] nonNull(String[] fields) {
+        String[] copy = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            copy[i] = fields[i] != null ? fields[i] : "";
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,75 @@
+import javax.swing.SwingUtilities;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+// Runs UI queries on the DAO executor and hands the results back to the EDT.
+// Each load belongs to a slot (one per table or widget): starting a new load in a slot
+// cancels the previous one, and a result that arrives after it went stale is dropped.
+// Writes go through submit() instead, which always reports back.
+// All methods must be called on the EDT.
+public class UiLoader {
+    private final Map<String, CompletableFuture<?>> inFlight = new HashMap<>();
+
+    public <T> void load(String slot, SqlCall<T> query, Consumer<T> onResult, Consumer<SQLException> onError) {
+        cancel(slot);
+        CompletableFuture<T> future = DaoExecutor.supply(query);
+        inFlight.put(slot, future);
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (inFlight.get(slot) != future) {
+                return; // superseded or cancelled while running
+            }
+            inFlight.remove(slot);
+            if (error == null) {
+                onResult.accept(result);
+            } else if (!(unwrap(error) instanceof CancellationException)) {
+                onError.accept(toSqlException(unwrap(error)));
+            }
+        }));
+    }
+
+    // For writes and other work that must finish once started: never cancelled or superseded,
+    // so the outcome of a confirmed action is always reported
+    public <T> void submit(SqlCall<T> work, Consumer<T> onResult, Consumer<SQLException> onError) {
+        DaoExecutor.supply(work).whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                onResult.accept(result);
+            } else {
+                onError.accept(toSqlException(unwrap(error)));
+            }
+        }));
+    }
+
+    public boolean isLoading(String slot) {
+        return inFlight.containsKey(slot);
+    }
+
+    public void cancel(String slot) {
+        CompletableFuture<?> previous = inFlight.remove(slot);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+    }
+
+    // Returns whether any load was still running
+    public boolean cancelAll() {
+        boolean hadWork = !inFlight.isEmpty();
+        for (String slot : new ArrayList<>(inFlight.keySet())) {
+            cancel(slot);
+        }
+        return hadWork;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static SQLException toSqlException(Throwable error) {
+        return error instanceof SQLException ? (SQLException) error : new SQLException(error.getMessage(), error);
+    }
+}
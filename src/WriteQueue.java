@@ -0,0 +1,211 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Single writer thread: every mutation is queued here and committed in groups,
+// one transaction (and one fsync) per flush instead of one per operation.
+public class WriteQueue {
+    private final String url;
+    private final ConnectionPool.Initializer initializer;
+    private final int maxBatchSize;
+    private final long flushIntervalMillis;
+
+    private final BlockingQueue<Task<?>> queue = new LinkedBlockingQueue<>();
+    private final List<Runnable> commitListeners = new CopyOnWriteArrayList<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private Connection conn;
+
+    // Metrics
+    private final Histogram queueDepth = new Histogram("write queue depth");
+    private final Histogram batchSize = new Histogram("commit batch size");
+    private final LongAdder commitCount = new LongAdder();
+    private final LongAdder failedCommitCount = new LongAdder();
+
+    private static class Task<T> {
+        final SqlWork<T> work;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+        SQLException error;
+
+        Task(SqlWork<T> work) {
+            this.work = work;
+        }
+
+        void runIn(Connection conn) {
+            try {
+                result = work.run(conn);
+            } catch (SQLException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                error = new SQLException(e);
+            }
+        }
+
+        void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+
+        void fail(SQLException e) {
+            future.completeExceptionally(error != null ? error : e);
+        }
+    }
+
+    public WriteQueue(String url, ConnectionPool.Initializer initializer, int maxBatchSize, long flushIntervalMillis) {
+        this.url = url;
+        this.initializer = initializer;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.flushIntervalMillis = Math.max(0, flushIntervalMillis);
+        this.writerThread = new Thread(this::runLoop, "db-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public <T> CompletableFuture<T> submit(SqlWork<T> work) {
+        Task<T> task = new Task<>(work);
+        if (!running) {
+            task.future.completeExceptionally(new SQLException("Write queue is shut down"));
+        } else if (Thread.currentThread() == writerThread) {
+            // Nested write from inside a queued task: join the transaction already open
+            task.runIn(conn);
+            task.complete();
+        } else {
+            queue.add(task);
+        }
+        return task.future;
+    }
+
+    private void runLoop() {
+        List<Task<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Task<?> first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < maxBatchSize) {
+                    Task<?> next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queueDepth.record(batch.size() + queue.size());
+                commit(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Task<?>> batch) {
+        try {
+            Connection c = connection();
+            try (Statement st = c.createStatement()) {
+                // Take the write lock up front so the batch never fails half way on SQLITE_BUSY
+                st.execute("BEGIN IMMEDIATE");
+                for (Task<?> task : batch) {
+                    // A savepoint per task keeps one caller's constraint failure from
+                    // rolling back everyone else's work in the same group commit
+                    st.execute("SAVEPOINT write_task");
+                    task.runIn(c);
+                    if (task.error != null) {
+                        st.execute("ROLLBACK TO write_task");
+                    }
+                    st.execute("RELEASE write_task");
+                }
+                st.execute("COMMIT");
+            } catch (SQLException e) {
+                rollbackQuietly(c);
+                throw e;
+            }
+            commitCount.increment();
+            batchSize.record(batch.size());
+            // Listeners run before callers resume, so a caller never reads a stale cache after its own write
+            notifyCommitListeners();
+            for (Task<?> task : batch) {
+                task.complete();
+            }
+        } catch (SQLException e) {
+            failedCommitCount.increment();
+            closeConnection();
+            for (Task<?> task : batch) {
+                task.fail(e);
+            }
+        }
+    }
+
+    public void addCommitListener(Runnable listener) {
+        commitListeners.add(listener);
+    }
+
+    private void notifyCommitListeners() {
+        for (Runnable listener : commitListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        if (conn == null || conn.isClosed()) {
+            conn = DriverManager.getConnection(url);
+            initializer.init(conn);
+        }
+        return conn;
+    }
+
+    private void rollbackQuietly(Connection c) {
+        try (Statement st = c.createStatement()) {
+            st.execute("ROLLBACK");
+        } catch (SQLException ignored) {
+            // no transaction left to roll back
+        }
+    }
+
+    private void closeConnection() {
+        try {
+            if (conn != null) conn.close();
+        } catch (SQLException ignored) {
+            // reopened on the next batch
+        }
+        conn = null;
+    }
+
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeConnection();
+    }
+
+    public int getQueueDepth() { return queue.size(); }
+    public Histogram getQueueDepthHistogram() { return queueDepth; }
+    public Histogram getBatchSizeHistogram() { return batchSize; }
+    public long getCommitCount() { return commitCount.sum(); }
+    public long getFailedCommitCount() { return failedCommitCount.sum(); }
+}